@@ -0,0 +1,77 @@
+package com.example.benchmark;
+
+import com.example.ModulithVirtualThreadSampleApplication;
+import com.example.shared.concurrent.Bulkhead;
+import com.example.shared.concurrent.BulkheadRegistry;
+import com.example.shared.events.AfterCommitEventPublisher;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * ベンチマーク用にWebサーバーなしでアプリケーションコンテキストを起動する
+ */
+final class BenchmarkApplicationContexts {
+    
+    private BenchmarkApplicationContexts() {
+    }
+    
+    /**
+     * @param properties ベンチマークごとに上書きするプロパティ（key=value形式）
+     */
+    static ConfigurableApplicationContext start(ApplicationContextInitializer<GenericApplicationContext> initializer,
+                                                String... properties) {
+        return new SpringApplicationBuilder(ModulithVirtualThreadSampleApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .initializers(initializer)
+                .properties(
+                        "logging.level.root=WARN",
+                        "logging.level.com.example=WARN",
+                        "app.diagnostics.pinning.enabled=false",
+                        // ベンチマークの実行ごとにジャーナルのファイルが残らないようにする
+                        "app.events.journal.enabled=false"
+                )
+                .properties(properties)
+                .run();
+    }
+    
+    static ConfigurableApplicationContext start() {
+        return start(context -> { });
+    }
+    
+    /**
+     * バックグラウンドのリスナーが処理を終えるまで待ってからコンテキストを閉じる
+     * （処理中にEntityManagerFactoryが閉じられてエラーになるのを避ける）
+     */
+    static void close(ConfigurableApplicationContext context, BooleanSupplier idle) {
+        BulkheadRegistry bulkheads = context.getBean(BulkheadRegistry.class);
+        AfterCommitEventPublisher afterCommitEventPublisher = context.getBean(AfterCommitEventPublisher.class);
+        awaitUntil(() -> idle.getAsBoolean() && afterCommitEventPublisher.inFlight() == 0 && bulkheads.all().stream()
+                .map(Bulkhead::snapshot)
+                .allMatch(snapshot -> snapshot.inFlight() == 0 && snapshot.waiting() == 0),
+                Duration.ofSeconds(60));
+        context.close();
+    }
+    
+    static void close(ConfigurableApplicationContext context) {
+        close(context, () -> true);
+    }
+    
+    private static void awaitUntil(BooleanSupplier condition, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
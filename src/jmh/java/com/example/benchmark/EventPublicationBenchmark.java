@@ -0,0 +1,117 @@
+package com.example.benchmark;
+
+import com.example.shared.events.AfterCommitEventPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ApplicationEventPublisherによるイベント発行のコスト
+ * in-memory: 同期リスナーのみのコンテキスト（マルチキャスタ自体のコスト）
+ * registry: @ApplicationModuleListener宛てにトランザクション内で発行（イベント登録簿への書き込みを含む）
+ * memory-registry: registryと同じ発行を、メモリ上の登録簿（app.events.registry.mode=IN_MEMORY）で行う
+ * after-commit: AfterCommitEventPublisherで発行（呼び出し元はコミット後の引き渡しまで。登録簿への書き込みは別スレッド）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class EventPublicationBenchmark {
+    
+    @Param({"in-memory", "registry", "memory-registry", "after-commit"})
+    public String publication;
+    
+    private ConfigurableApplicationContext context;
+    private ApplicationEventPublisher publisher;
+    private TransactionTemplate transactionTemplate;
+    private AfterCommitEventPublisher afterCommitEventPublisher;
+    private long sequence;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        if (publication.equals("in-memory")) {
+            AnnotationConfigApplicationContext inMemory = new AnnotationConfigApplicationContext();
+            inMemory.registerBean(InMemoryListener.class);
+            inMemory.refresh();
+            context = inMemory;
+        } else {
+            String registryMode = publication.equals("memory-registry") ? "IN_MEMORY" : "TUNED";
+            context = BenchmarkApplicationContexts.start(
+                    applicationContext -> applicationContext.registerBean(ModuleListener.class),
+                    "app.events.registry.mode=" + registryMode);
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            afterCommitEventPublisher = context.getBean(AfterCommitEventPublisher.class);
+        }
+        publisher = context;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (transactionTemplate == null) {
+            context.close();
+        } else {
+            ModuleListener listener = context.getBean(ModuleListener.class);
+            BenchmarkApplicationContexts.close(context, () -> listener.received() == sequence);
+        }
+    }
+    
+    @Benchmark
+    public long publish() {
+        BenchmarkEvent event = new BenchmarkEvent(++sequence);
+        switch (publication) {
+            case "in-memory" -> publisher.publishEvent(event);
+            case "registry", "memory-registry" -> transactionTemplate.executeWithoutResult(status -> publisher.publishEvent(event));
+            default -> transactionTemplate.executeWithoutResult(status -> afterCommitEventPublisher.publish(event));
+        }
+        return event.sequence();
+    }
+    
+    public record BenchmarkEvent(long sequence) {}
+    
+    static class InMemoryListener {
+        
+        private final AtomicLong received = new AtomicLong();
+        
+        @EventListener
+        void on(BenchmarkEvent event) {
+            received.incrementAndGet();
+        }
+    }
+    
+    static class ModuleListener {
+        
+        private final AtomicLong received = new AtomicLong();
+        
+        @ApplicationModuleListener
+        void on(BenchmarkEvent event) {
+            received.incrementAndGet();
+        }
+        
+        // @ApplicationModuleListenerによりプロキシされるため、フィールドではなくメソッド経由で参照する
+        long received() {
+            return received.get();
+        }
+    }
+}
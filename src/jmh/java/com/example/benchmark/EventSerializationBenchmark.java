@@ -0,0 +1,96 @@
+package com.example.benchmark;
+
+import com.example.notification.adapter.NotificationEnqueuedEvent;
+import com.example.order.adapter.OrderCreatedEvent;
+import com.example.shared.saga.SagaTrace;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.modulith.events.core.EventSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * イベント登録簿に保存するイベントのシリアライズのコスト
+ * jackson: spring-modulith-events-jacksonのEventSerializer（JSON）
+ * binary: BinaryEventSerializer（BinaryRecordCodecのバイナリをBase64にした文字列）
+ * 1件あたりの大きさ（UTF-8のバイト数）はserializeの結果にserialize:bytesとして出力する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class EventSerializationBenchmark {
+    
+    @Param({"jackson", "binary"})
+    public String format;
+    
+    @Param({"order-created", "notification-enqueued"})
+    public String eventType;
+    
+    private ConfigurableApplicationContext context;
+    private EventSerializer serializer;
+    private Object event;
+    private Object serialized;
+    private long serializedBytes;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplicationContexts.start(applicationContext -> { },
+                "app.events.serializer.format=BINARY");
+        serializer = format.equals("jackson")
+                ? context.getBean("jacksonEventSerializer", EventSerializer.class)
+                : context.getBean(EventSerializer.class);
+        event = switch (eventType) {
+            case "order-created" -> new OrderCreatedEvent(UUID.randomUUID(), "customer-001", "product-001", 3,
+                    new BigDecimal("3000.00"), SagaTrace.start());
+            default -> new NotificationEnqueuedEvent(UUID.randomUUID(), "customer-001", "ORDER_CREATED",
+                    UUID.randomUUID());
+        };
+        serialized = serializer.serialize(event);
+        serializedBytes = serialized.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object serialize(EncodedSize size) {
+        size.bytes = serializedBytes;
+        return serializer.serialize(event);
+    }
+    
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized, event.getClass());
+    }
+    
+    /**
+     * 1件あたりの大きさを計測値と並べて出力するためのカウンター（反復ごとの合計ではなく、そのままの値）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        
+        public long bytes;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.benchmark;
+
+import com.example.inventory.domain.InventoryItem;
+import com.example.inventory.infrastructure.InventoryLedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryItem.reserve/releaseのドメインロジック単体のコストと、
+ * 在庫台帳（CAS）での同一商品への同時引当のコストを比較する
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryItemBenchmark {
+    
+    @State(Scope.Thread)
+    public static class ItemState {
+        InventoryItem item;
+        
+        @Setup
+        public void setup() {
+            item = InventoryItem.builder()
+                    .productId("product-001")
+                    .availableQuantity(Integer.MAX_VALUE / 2)
+                    .reservedQuantity(0)
+                    .build();
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class LedgerState {
+        InventoryLedger.Entry entry;
+        
+        @Setup
+        public void setup() {
+            entry = new InventoryLedger()
+                    .load("product-001", id -> Optional.of(
+                            new InventoryLedger.Snapshot(id, Integer.MAX_VALUE / 2, 0)))
+                    .orElseThrow();
+        }
+    }
+    
+    @Benchmark
+    public InventoryItem reserveRelease(ItemState state) {
+        state.item.reserve(1);
+        state.item.release(1);
+        return state.item;
+    }
+    
+    @Benchmark
+    public boolean hasEnoughStock(ItemState state) {
+        return state.item.hasEnoughStock(1);
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean ledgerReserveReleaseUncontended(LedgerState state) {
+        boolean reserved = state.entry.tryReserve(1);
+        state.entry.release(1);
+        return reserved;
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public boolean ledgerReserveReleaseContended(LedgerState state) {
+        boolean reserved = state.entry.tryReserve(1);
+        state.entry.release(1);
+        return reserved;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.benchmark;
+
+import com.example.inventory.application.CreateInventoryItemCommand;
+import com.example.inventory.application.InventoryService;
+import com.example.order.application.CreateOrderCommand;
+import com.example.order.application.OrderDto;
+import com.example.order.application.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.createOrderのコスト（POST /api/ordersの応答時間のうちHTTPやJSON変換を除いた部分）
+ * IN_TRANSACTION（既定）: 注文の保存＋OrderCreatedEventの登録簿への書き込みを同じトランザクションで行う
+ * AFTER_COMMIT: 注文の保存のみ。OrderCreatedEventの登録簿への書き込みはコミット後にVirtual Threadで行う
+ * 後続のリスナーはどちらもバックグラウンドで動作する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderServiceBenchmark {
+    
+    private static final String PRODUCT_ID = "benchmark-product";
+    
+    @Param({"IN_TRANSACTION", "AFTER_COMMIT"})
+    public String publicationMode;
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderCommand command;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplicationContexts.start(applicationContext -> { },
+                "app.events.publication.mode=" + publicationMode);
+        orderService = context.getBean(OrderService.class);
+        context.getBean(InventoryService.class)
+                .createInventoryItem(new CreateInventoryItemCommand(PRODUCT_ID, Integer.MAX_VALUE / 2));
+        command = new CreateOrderCommand("benchmark-customer", PRODUCT_ID, 1, BigDecimal.valueOf(1000));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkApplicationContexts.close(context);
+    }
+    
+    @Benchmark
+    public OrderDto createOrder() {
+        return orderService.createOrder(command);
+    }
+}
@@ -1,8 +1,22 @@
 package com.example.api.rest;
 
+import com.example.shared.concurrent.Bulkhead;
+import com.example.shared.concurrent.BulkheadRegistry;
+import com.example.shared.concurrent.ExecutorStrategy;
+import com.example.shared.diagnostics.PinningRecorder;
+import com.example.shared.events.EventPublicationProperties;
+import com.example.shared.loadgen.JobProgress;
+import com.example.shared.loadgen.LoadTasks;
+import com.example.shared.loadgen.LoadTestJob;
+import com.example.shared.loadgen.LoadTestJobs;
+import com.example.shared.metrics.LatencyRecorder;
+import com.example.shared.metrics.LatencySummary;
+import com.example.shared.saga.SagaLatencyTracker;
+import com.example.shared.stub.StubServiceClient;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,10 +24,13 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.IntStream;
 
 @RestController
@@ -22,6 +39,18 @@ import java.util.stream.IntStream;
 public class BenchmarkController {
     
     private static final Logger log = LoggerFactory.getLogger(BenchmarkController.class);
+    private static final String EXTERNAL_API = "benchmark";
+    
+    private final BulkheadRegistry bulkheadRegistry;
+    private final PinningRecorder pinningRecorder;
+    private final SagaLatencyTracker sagaLatencyTracker;
+    private final OrderDetailAggregator orderDetailAggregator;
+    private final OrderDetailProperties orderDetailProperties;
+    private final StubServiceClient stubServiceClient;
+    private final LoadTestJobs loadTestJobs;
+    private final ExecutorMatrixBenchmark executorMatrixBenchmark;
+    private final MixedWorkloadBenchmark mixedWorkloadBenchmark;
+    private final OrderPublicationBenchmark orderPublicationBenchmark;
     
     /**
      * スレッド情報を取得
@@ -79,6 +108,47 @@ public class BenchmarkController {
         ));
     }
     
+    /**
+     * Virtual Threadのピン留め（jdk.VirtualThreadPinned）と
+     * スケジューラへの投入失敗（jdk.VirtualThreadSubmitFailed）をスタックごとに集計した結果を取得
+     * 合計ピン留め時間の長い順に返す
+     */
+    @GetMapping("/pinning")
+    public ResponseEntity<PinningRecorder.PinningReport> getPinning(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean reset) {
+        PinningRecorder.PinningReport report = pinningRecorder.report(limit);
+        if (reset) {
+            pinningRecorder.reset();
+        }
+        return ResponseEntity.ok(report);
+    }
+    
+    /**
+     * 注文サーガ（注文 → 在庫 → 注文確定 → 配送 → 通知）のレイテンシを取得
+     * エンドツーエンド（完了・キャンセル別）と、ステージごとのlag（前のイベント発行から処理開始まで）・
+     * processing（リスナーでの処理時間）を返す。ステージはp99の合計が大きい順
+     */
+    @GetMapping("/saga-latency")
+    public ResponseEntity<SagaLatencyTracker.SagaLatencyReport> getSagaLatency(
+            @RequestParam(defaultValue = "false") boolean reset) {
+        SagaLatencyTracker.SagaLatencyReport report = sagaLatencyTracker.report();
+        if (reset) {
+            sagaLatencyTracker.reset();
+        }
+        return ResponseEntity.ok(report);
+    }
+    
+    /**
+     * モジュールごとのバルクヘッドの状態を取得（実行中・待機中・拒否されたタスク数）
+     */
+    @GetMapping("/executors")
+    public ResponseEntity<List<Bulkhead.Snapshot>> getExecutors() {
+        return ResponseEntity.ok(bulkheadRegistry.all().stream()
+                .map(Bulkhead::snapshot)
+                .toList());
+    }
+    
     /**
      * I/O待機をシミュレートする非同期処理のベンチマーク
      * Virtual Threadの優位性を確認するためのエンドポイント
@@ -87,7 +157,22 @@ public class BenchmarkController {
     public ResponseEntity<BenchmarkResult> benchmarkIoSimulation(
             @RequestParam(defaultValue = "100") int concurrentRequests,
             @RequestParam(defaultValue = "100") int ioDelayMs) {
-        
+        return ResponseEntity.ok(runIoSimulation(concurrentRequests, ioDelayMs, new JobProgress()));
+    }
+    
+    /**
+     * /io-simulationと同じベンチマークをジョブとしてバックグラウンドで実行する
+     */
+    @PostMapping("/jobs/io-simulation")
+    public ResponseEntity<LoadTestJob.Snapshot> submitIoSimulationJob(
+            @RequestParam(defaultValue = "100") int concurrentRequests,
+            @RequestParam(defaultValue = "100") int ioDelayMs) {
+        return LoadTestJobController.accepted(loadTestJobs.submit("io-simulation",
+                progress -> runIoSimulation(concurrentRequests, ioDelayMs, progress)));
+    }
+    
+    private BenchmarkResult runIoSimulation(int concurrentRequests, int ioDelayMs, JobProgress progress) {
+        progress.setPlanned(concurrentRequests);
         log.info("I/Oシミュレーションベンチマーク開始: 並行リクエスト数={}, I/O待機時間={}ms", 
                 concurrentRequests, ioDelayMs);
         
@@ -96,6 +181,9 @@ public class BenchmarkController {
         
         try {
             Instant start = Instant.now();
+            // 全リクエストを同時に投入するため、レイテンシは投入時刻（ベンチマーク開始時刻）から計測する
+            long runStartNanos = System.nanoTime();
+            LatencyRecorder latency = new LatencyRecorder();
             
             // Virtual Threadを使用した非同期処理
             List<CompletableFuture<ThreadExecutionInfo>> futures = IntStream.range(0, concurrentRequests)
@@ -110,19 +198,21 @@ public class BenchmarkController {
                                     i, threadName != null ? threadName : "unnamed", isVirtual);
                         }
                         
-                        // I/O待機をシミュレート
+                        // 外部API呼び出しの待機（スタブの外部サービスをioDelayMsの固定の応答時間で呼び出す）
                         try {
-                            Thread.sleep(ioDelayMs);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
+                            stubServiceClient.call(EXTERNAL_API, ioDelayMs);
+                        } catch (RuntimeException e) {
+                            progress.record(false, System.nanoTime() - runStartNanos);
+                            throw e;
                         }
+                        progress.record(true, latency.recordSince(runStartNanos) - runStartNanos);
                         
                         return new ThreadExecutionInfo(i, threadName, isVirtual);
                     }, virtualThreadExecutor))
                     .toList();
             
             // すべての処理が完了するまで待機
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            LoadTasks.awaitAll(futures, virtualThreadExecutor);
             
             Instant end = Instant.now();
             Duration duration = Duration.between(start, end);
@@ -160,13 +250,14 @@ public class BenchmarkController {
                     duration.toMillis(),
                     virtualThreadCount,
                     concurrentRequests - virtualThreadCount,
-                    throughput
+                    throughput,
+                    latency.summary()
             );
             
             log.info("ベンチマーク完了: 総時間={}ms, スループット={} req/sec, Virtual Thread数={}", 
                     result.totalTimeMs(), String.format("%.2f", result.throughput()), virtualThreadCount);
             
-            return ResponseEntity.ok(result);
+            return result;
         } finally {
             virtualThreadExecutor.shutdown();
         }
@@ -181,7 +272,26 @@ public class BenchmarkController {
             @RequestParam(defaultValue = "100") int concurrentRequests,
             @RequestParam(defaultValue = "100") int ioDelayMs,
             @RequestParam(defaultValue = "10") int threadPoolSize) {
-        
+        return ResponseEntity.ok(runIoSimulationWithPlatformThreads(concurrentRequests, ioDelayMs, threadPoolSize,
+                new JobProgress()));
+    }
+    
+    /**
+     * /io-simulation-platform-threadsと同じベンチマークをジョブとしてバックグラウンドで実行する
+     */
+    @PostMapping("/jobs/io-simulation-platform-threads")
+    public ResponseEntity<LoadTestJob.Snapshot> submitIoSimulationWithPlatformThreadsJob(
+            @RequestParam(defaultValue = "100") int concurrentRequests,
+            @RequestParam(defaultValue = "100") int ioDelayMs,
+            @RequestParam(defaultValue = "10") int threadPoolSize) {
+        return LoadTestJobController.accepted(loadTestJobs.submit("io-simulation-platform-threads",
+                progress -> runIoSimulationWithPlatformThreads(concurrentRequests, ioDelayMs, threadPoolSize,
+                        progress)));
+    }
+    
+    private BenchmarkResult runIoSimulationWithPlatformThreads(int concurrentRequests, int ioDelayMs,
+                                                               int threadPoolSize, JobProgress progress) {
+        progress.setPlanned(concurrentRequests);
         log.info("プラットフォームスレッドでのベンチマーク開始: 並行リクエスト数={}, I/O待機時間={}ms, スレッドプールサイズ={}", 
                 concurrentRequests, ioDelayMs, threadPoolSize);
         
@@ -189,25 +299,30 @@ public class BenchmarkController {
         
         try {
             Instant start = Instant.now();
+            // 全リクエストを同時に投入するため、レイテンシは投入時刻（ベンチマーク開始時刻）から計測する
+            long runStartNanos = System.nanoTime();
+            LatencyRecorder latency = new LatencyRecorder();
             
             List<CompletableFuture<String>> futures = IntStream.range(0, concurrentRequests)
                     .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
                         String threadName = Thread.currentThread().getName();
                         boolean isVirtual = Thread.currentThread().isVirtual();
                         
-                        // I/O待機をシミュレート
+                        // 外部API呼び出しの待機（スタブの外部サービスをioDelayMsの固定の応答時間で呼び出す）
                         try {
-                            Thread.sleep(ioDelayMs);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
+                            stubServiceClient.call(EXTERNAL_API, ioDelayMs);
+                        } catch (RuntimeException e) {
+                            progress.record(false, System.nanoTime() - runStartNanos);
+                            throw e;
                         }
+                        progress.record(true, latency.recordSince(runStartNanos) - runStartNanos);
                         
                         return String.format("Request-%d completed on %s (Virtual: %s)", 
                                 i, threadName, isVirtual);
                     }, executor))
                     .toList();
             
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            LoadTasks.awaitAll(futures, executor);
             
             Instant end = Instant.now();
             Duration duration = Duration.between(start, end);
@@ -222,18 +337,186 @@ public class BenchmarkController {
                     duration.toMillis(),
                     virtualThreadCount,
                     concurrentRequests - virtualThreadCount,
-                    (double) concurrentRequests / duration.toMillis() * 1000
+                    (double) concurrentRequests / duration.toMillis() * 1000,
+                    latency.summary()
             );
             
             log.info("プラットフォームスレッドでのベンチマーク完了: 総時間={}ms, スループット={:.2f} req/sec", 
                     result.totalTimeMs(), result.throughput());
             
-            return ResponseEntity.ok(result);
+            return result;
         } finally {
             executor.shutdown();
         }
     }
     
+    /**
+     * 注文詳細の取得を、逐次実行とStructuredTaskScopeによる並行実行で交互に繰り返してレイテンシを比較する
+     * キャッシュが効くと各問い合わせはほぼ0msになるため、問い合わせごとにioDelayMsのI/O待機を挟む
+     * （逐次実行は約3×ioDelayMs、並行実行は約2×ioDelayMsになる）
+     */
+    @PostMapping("/order-detail-fan-out")
+    public ResponseEntity<FanOutBenchmarkResult> benchmarkOrderDetailFanOut(
+            @RequestParam UUID orderId,
+            @RequestParam(defaultValue = "50") int iterations,
+            @RequestParam(defaultValue = "20") int ioDelayMs) throws TimeoutException {
+        
+        log.info("注文詳細のファンアウトベンチマーク開始: 注文ID={}, 繰り返し回数={}, I/O待機時間={}ms", 
+                orderId, iterations, ioDelayMs);
+        
+        Duration ioDelay = Duration.ofMillis(ioDelayMs);
+        LatencyRecorder sequential = new LatencyRecorder();
+        LatencyRecorder structured = new LatencyRecorder();
+        
+        // 初回のキャッシュ読み込みを計測に含めないよう、1回ずつ空実行しておく
+        orderDetailAggregator.fetchSequential(orderId, Duration.ZERO);
+        orderDetailAggregator.fetchStructured(orderId, orderDetailProperties.deadline(), Duration.ZERO);
+        
+        // 実行順による偏り（JITやキャッシュの状態）を避けるため、両方式を交互に実行する
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            orderDetailAggregator.fetchSequential(orderId, ioDelay);
+            sequential.recordSince(start);
+            
+            start = System.nanoTime();
+            orderDetailAggregator.fetchStructured(orderId, orderDetailProperties.deadline().plus(ioDelay.multipliedBy(3)), ioDelay);
+            structured.recordSince(start);
+        }
+        
+        FanOutBenchmarkResult result = new FanOutBenchmarkResult(
+                iterations, ioDelayMs, sequential.summary(), structured.summary());
+        log.info("注文詳細のファンアウトベンチマーク完了: 逐次 p50={}ms, 並行 p50={}ms", 
+                String.format("%.2f", result.sequential().p50Ms()), String.format("%.2f", result.structured().p50Ms()));
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * I/O待機とCPU処理を交互に行うタスクのベンチマーク
+     * CPU処理がキャリアスレッドを占有したときのキャリア使用率とスケジューリングの遅れを返す
+     * offloadCpu=trueではCPU処理を専用のプラットフォームスレッドのプールで実行する
+     */
+    @PostMapping("/mixed-workload")
+    public ResponseEntity<MixedWorkloadBenchmark.MixedWorkloadResult> benchmarkMixedWorkload(
+            @RequestParam(defaultValue = "1000") int concurrentRequests,
+            @RequestParam(defaultValue = "50") int ioDelayMs,
+            @RequestParam(defaultValue = "2") int cpuSegments,
+            @RequestParam(defaultValue = "2000") int cpuSegmentMicros,
+            @RequestParam(defaultValue = "false") boolean offloadCpu,
+            @RequestParam(defaultValue = "0") int offloadPoolSize) {
+        return ResponseEntity.ok(mixedWorkloadBenchmark.run(concurrentRequests, ioDelayMs, cpuSegments,
+                cpuSegmentMicros, offloadCpu, offloadPoolSize, new JobProgress()));
+    }
+    
+    /**
+     * /mixed-workloadと同じベンチマークをジョブとしてバックグラウンドで実行する
+     */
+    @PostMapping("/jobs/mixed-workload")
+    public ResponseEntity<LoadTestJob.Snapshot> submitMixedWorkloadJob(
+            @RequestParam(defaultValue = "1000") int concurrentRequests,
+            @RequestParam(defaultValue = "50") int ioDelayMs,
+            @RequestParam(defaultValue = "2") int cpuSegments,
+            @RequestParam(defaultValue = "2000") int cpuSegmentMicros,
+            @RequestParam(defaultValue = "false") boolean offloadCpu,
+            @RequestParam(defaultValue = "0") int offloadPoolSize) {
+        return LoadTestJobController.accepted(loadTestJobs.submit("mixed-workload",
+                progress -> mixedWorkloadBenchmark.run(concurrentRequests, ioDelayMs, cpuSegments, cpuSegmentMicros,
+                        offloadCpu, offloadPoolSize, progress)));
+    }
+    
+    /**
+     * イベントの発行方式ごとにPOST /api/ordersをHTTPで呼び出し、応答時間・スループット・
+     * 後続の処理（イベントの発行とリスナー）の完了待ち時間を比較する
+     * 実行中は発行方式をアプリケーション全体で切り替え、終了後に元の方式に戻す
+     */
+    @PostMapping("/order-publication")
+    public ResponseEntity<OrderPublicationBenchmark.PublicationResult> benchmarkOrderPublication(
+            @RequestParam(defaultValue = "IN_TRANSACTION,AFTER_COMMIT") List<EventPublicationProperties.Mode> modes,
+            @RequestParam(defaultValue = "2000") int requests,
+            @RequestParam(defaultValue = "50") int concurrency) {
+        return ResponseEntity.ok(orderPublicationBenchmark.run(modes, requests, concurrency, new JobProgress()));
+    }
+    
+    /**
+     * /order-publicationと同じベンチマークをジョブとしてバックグラウンドで実行する
+     */
+    @PostMapping("/jobs/order-publication")
+    public ResponseEntity<LoadTestJob.Snapshot> submitOrderPublicationJob(
+            @RequestParam(defaultValue = "IN_TRANSACTION,AFTER_COMMIT") List<EventPublicationProperties.Mode> modes,
+            @RequestParam(defaultValue = "2000") int requests,
+            @RequestParam(defaultValue = "50") int concurrency) {
+        return LoadTestJobController.accepted(loadTestJobs.submit("order-publication",
+                progress -> orderPublicationBenchmark.run(modes, requests, concurrency, progress)));
+    }
+    
+    /**
+     * 比較できる実行方式の一覧
+     */
+    @GetMapping("/executor-strategies")
+    public ResponseEntity<List<ExecutorMatrixBenchmark.StrategyInfo>> getExecutorStrategies() {
+        return ResponseEntity.ok(executorMatrixBenchmark.resolve(List.of()).stream()
+                .map(strategy -> new ExecutorMatrixBenchmark.StrategyInfo(strategy.name(), strategy.description()))
+                .toList());
+    }
+    
+    /**
+     * 実行方式を同時実行数 × I/O待機時間 × CPU処理時間の組み合わせごとに比較する（各パラメータはカンマ区切りで複数指定）
+     * format=tableを指定した場合はMarkdownの比較表を返す
+     */
+    @PostMapping("/executor-matrix")
+    public ResponseEntity<ExecutorMatrixBenchmark.MatrixResult> benchmarkExecutorMatrix(
+            @RequestParam(required = false) List<String> strategies,
+            @RequestParam(defaultValue = "100,1000") List<Integer> concurrency,
+            @RequestParam(defaultValue = "50") List<Integer> ioDelayMs,
+            @RequestParam(defaultValue = "0,1000") List<Integer> cpuWorkMicros,
+            @RequestParam(defaultValue = "50") int poolSize) {
+        return resolveExecutorStrategies(strategies, poolSize)
+                .map(resolved -> ResponseEntity.ok(executorMatrixBenchmark.run(
+                        resolved, concurrency, ioDelayMs, cpuWorkMicros, poolSize, new JobProgress())))
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+    }
+    
+    @PostMapping(path = "/executor-matrix", params = "format=table", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> benchmarkExecutorMatrixTable(
+            @RequestParam(required = false) List<String> strategies,
+            @RequestParam(defaultValue = "100,1000") List<Integer> concurrency,
+            @RequestParam(defaultValue = "50") List<Integer> ioDelayMs,
+            @RequestParam(defaultValue = "0,1000") List<Integer> cpuWorkMicros,
+            @RequestParam(defaultValue = "50") int poolSize) {
+        return resolveExecutorStrategies(strategies, poolSize)
+                .map(resolved -> ResponseEntity.ok(executorMatrixBenchmark.run(
+                        resolved, concurrency, ioDelayMs, cpuWorkMicros, poolSize, new JobProgress()).toTable()))
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+    }
+    
+    /**
+     * /executor-matrixと同じ比較をジョブとしてバックグラウンドで実行する
+     */
+    @PostMapping("/jobs/executor-matrix")
+    public ResponseEntity<LoadTestJob.Snapshot> submitExecutorMatrixJob(
+            @RequestParam(required = false) List<String> strategies,
+            @RequestParam(defaultValue = "100,1000") List<Integer> concurrency,
+            @RequestParam(defaultValue = "50") List<Integer> ioDelayMs,
+            @RequestParam(defaultValue = "0,1000") List<Integer> cpuWorkMicros,
+            @RequestParam(defaultValue = "50") int poolSize) {
+        return resolveExecutorStrategies(strategies, poolSize)
+                .map(resolved -> LoadTestJobController.accepted(loadTestJobs.submit("executor-matrix",
+                        progress -> executorMatrixBenchmark.run(
+                                resolved, concurrency, ioDelayMs, cpuWorkMicros, poolSize, progress))))
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+    }
+    
+    private Optional<List<ExecutorStrategy>> resolveExecutorStrategies(List<String> strategies, int poolSize) {
+        if (poolSize < 1) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(executorMatrixBenchmark.resolve(strategies));
+        } catch (IllegalArgumentException e) {
+            log.warn("実行方式の指定が不正です: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
     public record ThreadInfo(
             int totalThreads,
             long virtualThreads,
@@ -250,7 +533,15 @@ public class BenchmarkController {
             long totalTimeMs,
             long virtualThreadCount,
             long platformThreadCount,
-            double throughput
+            double throughput,
+            LatencySummary latency
+    ) {}
+    
+    public record FanOutBenchmarkResult(
+            int iterations,
+            int ioDelayMs,
+            LatencySummary sequential,
+            LatencySummary structured
     ) {}
     
     // スレッド実行情報を保持する内部クラス
@@ -0,0 +1,45 @@
+package com.example.api.rest;
+
+import com.example.shared.codec.IncompatibleRecordException;
+import com.example.shared.journal.EventJournal;
+import com.example.shared.journal.JournalPage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/events/journal")
+@ConditionalOnProperty(prefix = "app.events.journal", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EventJournalController {
+    
+    private static final int MAX_LIMIT = 1000;
+    
+    private final EventJournal eventJournal;
+    
+    /**
+     * fromOffsetからジャーナルのイベントを読み込む
+     * 続きはレスポンスのnextOffsetを指定して読み込む
+     * 記録時から定義が変わって読み込めないイベントを含む場合は409を返す
+     */
+    @GetMapping
+    public ResponseEntity<JournalPage> read(
+            @RequestParam(defaultValue = "0") long fromOffset,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(eventJournal.read(fromOffset, Math.min(Math.max(limit, 1), MAX_LIMIT)));
+        } catch (IncompatibleRecordException e) {
+            log.warn("ジャーナルのイベントを読み込めません: fromOffset={}, {}", fromOffset, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.api.rest;
+
+import com.example.shared.concurrent.CpuWork;
+import com.example.shared.concurrent.ExecutorStrategy;
+import com.example.shared.concurrent.ExecutorStrategyRegistry;
+import com.example.shared.loadgen.JobProgress;
+import com.example.shared.metrics.LatencyRecorder;
+import com.example.shared.metrics.LatencySummary;
+import com.example.shared.stub.StubServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 実行方式（Virtual Thread・プラットフォームスレッドのプール・ForkJoinPool・CompletableFutureのチェーン）を
+ * 同時実行数 × I/O待機時間 × CPU処理時間の組み合わせごとに同じワークロードで実行し、比較表を作る
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutorMatrixBenchmark {
+    
+    // 各モジュールの外部I/Oのメトリクス（app.stub-service.calls）と混ざらないよう、ベンチマーク用の名前で呼び出す
+    private static final String EXTERNAL_API = "executor-matrix";
+    // 計測前に各方式で空実行するタスク数（JITコンパイルとHTTP接続の確立を計測に含めない）
+    private static final int WARMUP_TASKS = 50;
+    
+    private final ExecutorStrategyRegistry strategyRegistry;
+    private final StubServiceClient stubServiceClient;
+    
+    /**
+     * @throws IllegalArgumentException 登録されていない方式を指定した場合
+     */
+    public List<ExecutorStrategy> resolve(List<String> strategyNames) {
+        if (strategyNames == null || strategyNames.isEmpty()) {
+            return List.copyOf(strategyRegistry.all());
+        }
+        return strategyNames.stream()
+                .map(name -> strategyRegistry.find(name)
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown executor strategy: " + name)))
+                .toList();
+    }
+    
+    /**
+     * 組み合わせごとに、同時実行数だけのタスクを一斉に投入して全件の完了を待つ
+     * 1つの組み合わせの中で全方式を続けて実行してから次の組み合わせに進むため、方式間の比較は同じ時間帯の条件で行われる
+     */
+    public MatrixResult run(List<ExecutorStrategy> strategies, List<Integer> concurrencies, List<Integer> ioDelaysMs,
+                            List<Integer> cpuWorkMicros, int poolSize, JobProgress progress) {
+        progress.setPlanned((long) strategies.size() * concurrencies.stream().mapToLong(Integer::longValue).sum()
+                * ioDelaysMs.size() * cpuWorkMicros.size());
+        log.info("実行方式の比較を開始: 方式={}, 同時実行数={}, I/O待機時間={}ms, CPU処理時間={}μs, プールサイズ={}, キャリアスレッド数={}",
+                strategies.stream().map(ExecutorStrategy::name).toList(), concurrencies, ioDelaysMs, cpuWorkMicros,
+                poolSize, ExecutorStrategyRegistry.carrierParallelism());
+        
+        for (ExecutorStrategy strategy : strategies) {
+            runCell(strategy, WARMUP_TASKS, ioDelaysMs.get(0), cpuWorkMicros.get(0), poolSize, new JobProgress());
+        }
+        
+        List<Row> rows = new ArrayList<>();
+        for (int concurrency : concurrencies) {
+            for (int ioDelayMs : ioDelaysMs) {
+                for (int cpuMicros : cpuWorkMicros) {
+                    for (ExecutorStrategy strategy : strategies) {
+                        Row row = runCell(strategy, concurrency, ioDelayMs, cpuMicros, poolSize, progress);
+                        log.info("実行方式={}, 同時実行数={}, I/O待機時間={}ms, CPU処理時間={}μs: 総時間={}ms, スループット={} req/sec, p99={}ms, 失敗={}",
+                                row.strategy(), concurrency, ioDelayMs, cpuMicros, row.totalTimeMs(),
+                                String.format("%.2f", row.throughput()), String.format("%.2f", row.latency().p99Ms()),
+                                row.failed());
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        
+        MatrixResult result = new MatrixResult(ExecutorStrategyRegistry.carrierParallelism(),
+                Runtime.getRuntime().availableProcessors(), poolSize,
+                strategies.stream().map(strategy -> new StrategyInfo(strategy.name(), strategy.description())).toList(),
+                rows);
+        log.info("実行方式の比較が完了しました\n{}", result.toTable());
+        return result;
+    }
+    
+    private Row runCell(ExecutorStrategy strategy, int concurrency, int ioDelayMs, int cpuMicros, int poolSize,
+                        JobProgress progress) {
+        LatencyRecorder latency = new LatencyRecorder();
+        LongAdder failed = new LongAdder();
+        ExecutorStrategy.Task task = new ExecutorStrategy.Task() {
+            @Override
+            public void blockingIo() {
+                if (ioDelayMs > 0) {
+                    stubServiceClient.call(EXTERNAL_API, ioDelayMs);
+                }
+            }
+            
+            @Override
+            public CompletableFuture<Void> asyncIo() {
+                return ioDelayMs > 0
+                        ? stubServiceClient.callAsync(EXTERNAL_API, ioDelayMs)
+                        : CompletableFuture.completedFuture(null);
+            }
+            
+            @Override
+            public void cpuWork() {
+                CpuWork.burn(cpuMicros);
+            }
+        };
+        
+        try (ExecutorStrategy.Execution execution = strategy.open(poolSize)) {
+            // 全タスクを同時に投入するため、レイテンシは投入時刻（この組み合わせの開始時刻）から計測する
+            long startNanos = System.nanoTime();
+            List<CompletableFuture<Void>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(execution.submit(task).whenComplete((ignored, error) -> {
+                    long latencyNanos = System.nanoTime() - startNanos;
+                    if (error == null) {
+                        latency.recordNanos(latencyNanos);
+                    } else {
+                        failed.increment();
+                    }
+                    progress.record(error == null, latencyNanos);
+                }));
+            }
+            await(futures, execution);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            
+            LatencySummary summary = latency.summary();
+            double throughput = summary.count() / (elapsedNanos / 1_000_000_000.0);
+            return new Row(strategy.name(), concurrency, ioDelayMs, cpuMicros, Duration.ofNanos(elapsedNanos).toMillis(),
+                    throughput, failed.sum(), summary);
+        }
+    }
+    
+    /**
+     * 全タスクの完了を待つ（失敗したタスクは集計済みのため、ここでは例外にしない）
+     * 割り込まれた場合は実行中のタスクを中断してCancellationExceptionを投げる
+     */
+    private static void await(List<CompletableFuture<Void>> futures, ExecutorStrategy.Execution execution) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(error -> null).get();
+        } catch (InterruptedException e) {
+            execution.cancel();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Executor matrix benchmark was cancelled");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unexpected failure while awaiting tasks", e.getCause());
+        }
+    }
+    
+    public record StrategyInfo(String name, String description) {}
+    
+    /**
+     * @param throughput 成功したタスク数 / 総時間（req/sec）
+     */
+    public record Row(
+            String strategy,
+            int concurrency,
+            int ioDelayMs,
+            int cpuWorkMicros,
+            long totalTimeMs,
+            double throughput,
+            long failed,
+            LatencySummary latency
+    ) {}
+    
+    /**
+     * @param carrierParallelism Virtual Threadのキャリアスレッド数
+     */
+    public record MatrixResult(
+            int carrierParallelism,
+            int availableProcessors,
+            int poolSize,
+            List<StrategyInfo> strategies,
+            List<Row> rows
+    ) {
+        
+        /**
+         * 組み合わせごとにスループットの高い順に並べたMarkdownの表（各組み合わせで最も高い方式に*を付ける）
+         */
+        public String toTable() {
+            StringBuilder table = new StringBuilder()
+                    .append("| concurrency | ioDelayMs | cpuWorkMicros | strategy | totalTimeMs | throughput (req/s) | p50 (ms) | p99 (ms) | failed |\n")
+                    .append("|---:|---:|---:|---|---:|---:|---:|---:|---:|\n");
+            rows.stream()
+                    .collect(Collectors.groupingBy(
+                            row -> List.of(row.concurrency(), row.ioDelayMs(), row.cpuWorkMicros()),
+                            LinkedHashMap::new, Collectors.toList()))
+                    .values()
+                    .forEach(cell -> {
+                        List<Row> ranked = cell.stream()
+                                .sorted(Comparator.comparingDouble(Row::throughput).reversed())
+                                .toList();
+                        for (int i = 0; i < ranked.size(); i++) {
+                            Row row = ranked.get(i);
+                            table.append(String.format("| %d | %d | %d | %s%s | %d | %.1f | %.1f | %.1f | %d |\n",
+                                    row.concurrency(), row.ioDelayMs(), row.cpuWorkMicros(), row.strategy(),
+                                    i == 0 ? " *" : "", row.totalTimeMs(), row.throughput(),
+                                    row.latency().p50Ms(), row.latency().p99Ms(), row.failed()));
+                        }
+                    });
+            return table.toString();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.api.rest;
+
+import com.example.shared.loadgen.LoadTestJob;
+import com.example.shared.loadgen.LoadTestJobs;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * バックグラウンドで実行中の負荷テスト（/api/load-test/jobs/*、/api/benchmark/jobs/*で投入）の状態・進捗・中断
+ */
+@RestController
+@RequestMapping("/api/load-test/jobs")
+@RequiredArgsConstructor
+public class LoadTestJobController {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoadTestJobController.class);
+    private final LoadTestJobs loadTestJobs;
+    
+    @GetMapping
+    public ResponseEntity<List<LoadTestJob.Snapshot>> getJobs() {
+        return ResponseEntity.ok(loadTestJobs.all().stream()
+                .map(LoadTestJob::snapshot)
+                .sorted(Comparator.comparing(LoadTestJob.Snapshot::submittedAt))
+                .toList());
+    }
+    
+    @GetMapping("/{jobId}")
+    public ResponseEntity<LoadTestJob.Snapshot> getJob(@PathVariable UUID jobId) {
+        return loadTestJobs.find(jobId)
+                .map(job -> ResponseEntity.ok(job.snapshot()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * ジョブの進捗をServer-Sent Eventsで送る
+     * 実行中はprogressイベント（完了件数・直近のスループット・直近のp99）を定期的に送り、
+     * 終了したらfinishedイベント（結果を含む）を送って接続を閉じる
+     */
+    @GetMapping(path = "/{jobId}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable UUID jobId) {
+        return loadTestJobs.find(jobId)
+                .map(job -> ResponseEntity.ok(subscribe(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * 実行中のジョブを中断する（処理中のVirtual Threadにも割り込む）
+     * 終了済みのジョブは409を返す
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<LoadTestJob.Snapshot> cancelJob(@PathVariable UUID jobId) {
+        if (loadTestJobs.find(jobId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!loadTestJobs.cancel(jobId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().body(loadTestJobs.find(jobId).orElseThrow().snapshot());
+    }
+    
+    /**
+     * ジョブを受け付けた応答（202）。Locationにはジョブの状態を取得するURLを返す
+     */
+    static ResponseEntity<LoadTestJob.Snapshot> accepted(LoadTestJob job) {
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/load-test/jobs/{jobId}")
+                        .buildAndExpand(job.id())
+                        .toUri())
+                .body(job.snapshot());
+    }
+    
+    private SseEmitter subscribe(LoadTestJob job) {
+        // ジョブの終了まで接続を保つためタイムアウトは設けない
+        SseEmitter emitter = new SseEmitter(0L);
+        AtomicBoolean closed = new AtomicBoolean();
+        
+        LoadTestJob.Subscriber subscriber = new LoadTestJob.Subscriber() {
+            @Override
+            public void onProgress(LoadTestJob.Snapshot snapshot) {
+                send("progress", snapshot);
+            }
+            
+            @Override
+            public void onFinished(LoadTestJob.Snapshot snapshot) {
+                if (send("finished", snapshot) && closed.compareAndSet(false, true)) {
+                    job.unsubscribe(this);
+                    emitter.complete();
+                }
+            }
+            
+            private boolean send(String name, LoadTestJob.Snapshot snapshot) {
+                if (closed.get()) {
+                    return false;
+                }
+                try {
+                    emitter.send(SseEmitter.event().name(name).data(snapshot));
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    // クライアントが切断した場合
+                    log.debug("進捗の送信に失敗しました: ジョブID={}, {}", job.id(), e.getMessage());
+                    if (closed.compareAndSet(false, true)) {
+                        job.unsubscribe(this);
+                    }
+                    return false;
+                }
+            }
+        };
+        
+        Runnable unsubscribe = () -> {
+            closed.set(true);
+            job.unsubscribe(subscriber);
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        
+        // 接続直後に現在の状態を送ってから購読する（終了済みの場合はfinishedを送って閉じる）
+        subscriber.onProgress(job.snapshot());
+        job.subscribe(subscriber);
+        return emitter;
+    }
+}
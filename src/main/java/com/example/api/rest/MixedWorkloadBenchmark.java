@@ -0,0 +1,219 @@
+package com.example.api.rest;
+
+import com.example.shared.concurrent.CpuWork;
+import com.example.shared.concurrent.ExecutorStrategyRegistry;
+import com.example.shared.loadgen.JobProgress;
+import com.example.shared.loadgen.LoadTasks;
+import com.example.shared.metrics.LatencyRecorder;
+import com.example.shared.metrics.LatencySummary;
+import com.example.shared.stub.StubServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * I/O待機とCPU処理（価格計算・JSON変換・ハッシュ計算などを想定）を交互に行うタスクをVirtual Threadで実行し、
+ * CPU処理がキャリアスレッドを占有することによるスケジューリングの遅れを計測する
+ * CPU処理を専用のプラットフォームスレッドのプールへ逃がした場合と比較して、処理を分けるべき条件を見極める
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MixedWorkloadBenchmark {
+    
+    // 各モジュールの外部I/Oのメトリクス（app.stub-service.calls）と混ざらないよう、ベンチマーク用の名前で呼び出す
+    private static final String EXTERNAL_API = "mixed-workload";
+    private static final Duration PROBE_INTERVAL = Duration.ofMillis(1);
+    
+    private final StubServiceClient stubServiceClient;
+    
+    /**
+     * 各タスクは「I/O待機 → CPU処理」をcpuSegments回繰り返す
+     *
+     * @param offloadCpu CPU処理を専用のプラットフォームスレッドのプールで実行し、Virtual Threadはその完了を待つ
+     * @param offloadPoolSize 退避先のプールのスレッド数（0以下の場合はCPUコア数）
+     */
+    public MixedWorkloadResult run(int concurrentRequests, int ioDelayMs, int cpuSegments, int cpuSegmentMicros,
+                                   boolean offloadCpu, int offloadPoolSize, JobProgress progress) {
+        int poolSize = offloadPoolSize > 0 ? offloadPoolSize : Runtime.getRuntime().availableProcessors();
+        int carrierParallelism = ExecutorStrategyRegistry.carrierParallelism();
+        progress.setPlanned(concurrentRequests);
+        log.info("CPU処理とI/O待機の混在ベンチマーク開始: 並行リクエスト数={}, I/O待機時間={}ms, CPU処理={}μs×{}回, CPU処理の退避先={}, キャリアスレッド数={}",
+                concurrentRequests, ioDelayMs, cpuSegmentMicros, cpuSegments,
+                offloadCpu ? "プラットフォームスレッド" + poolSize + "本" : "なし", carrierParallelism);
+        
+        LatencyRecorder latency = new LatencyRecorder();
+        LatencyRecorder startDelay = new LatencyRecorder();
+        LatencyRecorder resumeDelay = new LatencyRecorder();
+        LongAdder cpuOnCarrierNanos = new LongAdder();
+        LongAdder failed = new LongAdder();
+        
+        ExecutorService virtualThreadExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("mixed-workload-vt-", 0).factory());
+        ExecutorService offloadPool = offloadCpu
+                ? Executors.newFixedThreadPool(poolSize, Thread.ofPlatform().name("cpu-offload-", 0).factory())
+                : null;
+        SchedulerProbe probe = SchedulerProbe.start();
+        long processCpuStartNanos = processCpuTimeNanos();
+        
+        try {
+            long runStartNanos = System.nanoTime();
+            List<CompletableFuture<Void>> futures = IntStream.range(0, concurrentRequests)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        // 投入からVirtual Threadが実行を始めるまでの待ち（空いているキャリアスレッドを待つ時間）
+                        startDelay.recordSince(runStartNanos);
+                        try {
+                            for (int segment = 0; segment < cpuSegments; segment++) {
+                                long ioStartNanos = System.nanoTime();
+                                stubServiceClient.call(EXTERNAL_API, ioDelayMs);
+                                // 応答時間を超えた分は、応答を受けてから再びキャリアスレッドに載るまでの待ちを含む
+                                resumeDelay.recordNanos(System.nanoTime() - ioStartNanos - Duration.ofMillis(ioDelayMs).toNanos());
+                                
+                                if (offloadCpu) {
+                                    offloadPool.submit(() -> CpuWork.burn(cpuSegmentMicros)).get();
+                                } else {
+                                    long cpuStartNanos = System.nanoTime();
+                                    CpuWork.burn(cpuSegmentMicros);
+                                    cpuOnCarrierNanos.add(System.nanoTime() - cpuStartNanos);
+                                }
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            failed.increment();
+                            progress.record(false, System.nanoTime() - runStartNanos);
+                            return;
+                        } catch (RuntimeException | ExecutionException e) {
+                            failed.increment();
+                            progress.record(false, System.nanoTime() - runStartNanos);
+                            return;
+                        }
+                        progress.record(true, latency.recordSince(runStartNanos) - runStartNanos);
+                    }, virtualThreadExecutor))
+                    .toList();
+            
+            LoadTasks.awaitAll(futures, virtualThreadExecutor);
+            
+            long elapsedNanos = System.nanoTime() - runStartNanos;
+            long processCpuNanos = processCpuTimeNanos() - processCpuStartNanos;
+            LatencySummary latencySummary = latency.summary();
+            
+            MixedWorkloadResult result = new MixedWorkloadResult(
+                    concurrentRequests,
+                    ioDelayMs,
+                    cpuSegments,
+                    cpuSegmentMicros,
+                    offloadCpu,
+                    offloadCpu ? poolSize : 0,
+                    carrierParallelism,
+                    Duration.ofNanos(elapsedNanos).toMillis(),
+                    latencySummary.count() / (elapsedNanos / 1_000_000_000.0),
+                    failed.sum(),
+                    Math.min(1.0, (double) cpuOnCarrierNanos.sum() / ((double) elapsedNanos * carrierParallelism)),
+                    processCpuStartNanos < 0 ? -1 : (double) processCpuNanos
+                            / ((double) elapsedNanos * Runtime.getRuntime().availableProcessors()),
+                    latencySummary,
+                    startDelay.summary(),
+                    resumeDelay.summary(),
+                    probe.stop()
+            );
+            
+            log.info("CPU処理とI/O待機の混在ベンチマーク完了: 総時間={}ms, スループット={} req/sec, キャリア使用率={}, スケジューリング遅延 p99={}ms, 再開遅延 p99={}ms",
+                    result.totalTimeMs(), String.format("%.2f", result.throughput()),
+                    String.format("%.2f", result.carrierUtilization()),
+                    String.format("%.2f", result.schedulerProbeDelay().p99Ms()),
+                    String.format("%.2f", result.resumeDelay().p99Ms()));
+            return result;
+        } finally {
+            probe.stop();
+            virtualThreadExecutor.shutdown();
+            if (offloadPool != null) {
+                offloadPool.shutdownNow();
+            }
+        }
+    }
+    
+    /**
+     * プロセス全体のCPU時間（取得できないJVMでは-1）
+     */
+    private static long processCpuTimeNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return -1;
+    }
+    
+    /**
+     * 一定間隔で眠っては起きるだけのVirtual Thread
+     * 予定より起きるのが遅れた分は、キャリアスレッドが空くのを待った時間（スケジューリングの遅れ）になる
+     */
+    private static final class SchedulerProbe {
+        
+        private final LatencyRecorder delay = new LatencyRecorder();
+        private final Thread thread;
+        private volatile boolean running = true;
+        
+        private SchedulerProbe() {
+            this.thread = Thread.ofVirtual().name("scheduler-probe").unstarted(this::loop);
+        }
+        
+        static SchedulerProbe start() {
+            SchedulerProbe probe = new SchedulerProbe();
+            probe.thread.start();
+            return probe;
+        }
+        
+        private void loop() {
+            long intervalNanos = PROBE_INTERVAL.toNanos();
+            while (running) {
+                long start = System.nanoTime();
+                try {
+                    Thread.sleep(PROBE_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                delay.recordNanos(System.nanoTime() - start - intervalNanos);
+            }
+        }
+        
+        LatencySummary stop() {
+            running = false;
+            return delay.summary();
+        }
+    }
+    
+    /**
+     * @param carrierUtilization Virtual Thread上のCPU処理がキャリアスレッドを占有した時間の割合（経過時間 × キャリアスレッド数に対する比）
+     * @param processCpuUtilization プロセス全体のCPU使用率（経過時間 × CPUコア数に対する比。取得できない場合は負の値）
+     * @param startDelay 投入からタスクが実行を始めるまでの待ち
+     * @param resumeDelay I/Oの応答時間を超えて待った時間（応答後にキャリアスレッドへ載るまでの待ちを含む）
+     * @param schedulerProbeDelay 1ms間隔で眠るVirtual Threadが予定より遅れて起きた時間
+     */
+    public record MixedWorkloadResult(
+            int concurrentRequests,
+            int ioDelayMs,
+            int cpuSegments,
+            int cpuSegmentMicros,
+            boolean offloadCpu,
+            int offloadPoolSize,
+            int carrierParallelism,
+            long totalTimeMs,
+            double throughput,
+            long failed,
+            double carrierUtilization,
+            double processCpuUtilization,
+            LatencySummary latency,
+            LatencySummary startDelay,
+            LatencySummary resumeDelay,
+            LatencySummary schedulerProbeDelay
+    ) {}
+}
@@ -1,11 +1,18 @@
 package com.example.api.rest;
 
+import com.example.notification.application.NotificationCursor;
 import com.example.notification.application.NotificationDto;
+import com.example.notification.application.NotificationPage;
 import com.example.notification.application.NotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -13,11 +20,54 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NotificationController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
     
+    /**
+     * 通知履歴（送信待ち・送信失敗を含む）を登録日時の新しい順に1ページ分取得
+     * 次ページがある場合はX-Next-Cursorヘッダーのカーソルをcursorパラメータに指定する
+     */
     @GetMapping("/{recipientId}")
-    public ResponseEntity<List<NotificationDto>> getNotifications(@PathVariable String recipientId) {
-        List<NotificationDto> notifications = notificationService.getNotificationsByRecipient(recipientId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationDto>> getNotifications(
+            @PathVariable String recipientId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+        NotificationCursor after;
+        try {
+            after = cursor == null ? null : NotificationCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        NotificationPage page = notificationService.getNotificationsByRecipient(recipientId, after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().encode());
+        }
+        return response.body(page.notifications());
+    }
+    
+    /**
+     * 通知履歴を全件、1行1件のJSON（NDJSON）でストリーミングする
+     * サーバー側でリストに溜めないため、件数が多くてもメモリ使用量は一定
+     */
+    @GetMapping("/{recipientId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamNotifications(@PathVariable String recipientId) {
+        StreamingResponseBody body = outputStream -> notificationService.streamNotificationsByRecipient(
+                recipientId,
+                notification -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(notification));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
     }
 }
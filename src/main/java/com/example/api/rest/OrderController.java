@@ -6,16 +6,26 @@ import com.example.inventory.application.InventoryService;
 import com.example.order.application.CreateOrderCommand;
 import com.example.order.application.OrderDto;
 import com.example.order.application.OrderService;
+import com.example.orderview.application.OrderView;
+import com.example.orderview.application.OrderViewProjection;
+import com.example.shared.concurrent.Bulkhead;
+import com.example.shared.concurrent.BulkheadRegistry;
 import com.example.shipping.application.ShipmentDto;
 import com.example.shipping.application.ShippingService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -26,11 +36,19 @@ public class OrderController {
     private final OrderService orderService;
     private final InventoryService inventoryService;
     private final ShippingService shippingService;
+    private final OrderViewProjection orderViewProjection;
+    private final OrderDetailAggregator orderDetailAggregator;
+    private final OrderDetailProperties orderDetailProperties;
+    private final BulkheadRegistry bulkheadRegistry;
     
     @PostMapping
     public ResponseEntity<OrderDto> createOrder(@RequestBody CreateOrderRequest request) {
         log.info("注文作成リクエストを受信しました (スレッド: {})", Thread.currentThread());
         
+        if (isOverloaded()) {
+            return serviceUnavailable();
+        }
+        
         CreateOrderCommand command = new CreateOrderCommand(
                 request.customerId(),
                 request.productId(),
@@ -42,12 +60,68 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
     
+    /**
+     * 注文の一括登録（バルクインポート用）
+     * 1リクエスト=1トランザクションで、INSERTはJDBCバッチで送信される
+     * 0件、またはapp.order.batch.max-request-sizeを超える場合は400を返す
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderDto>> createOrders(@RequestBody List<CreateOrderRequest> requests) {
+        log.info("注文一括作成リクエストを受信しました: 件数={} (スレッド: {})", requests.size(), Thread.currentThread());
+        
+        if (isOverloaded()) {
+            return serviceUnavailable();
+        }
+        
+        List<CreateOrderCommand> commands = requests.stream()
+                .map(request -> new CreateOrderCommand(
+                        request.customerId(),
+                        request.productId(),
+                        request.quantity(),
+                        request.unitPrice()
+                ))
+                .toList();
+        
+        try {
+            return ResponseEntity.ok(orderService.createOrders(commands));
+        } catch (IllegalArgumentException e) {
+            log.warn("注文一括作成リクエストを拒否しました: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderDto> getOrder(@PathVariable UUID orderId) {
         OrderDto order = orderService.getOrder(orderId);
         return ResponseEntity.ok(order);
     }
     
+    /**
+     * 注文ビュー（注文状態・引当結果・追跡番号・通知件数）をまとめて返す
+     * モジュールイベントから組み立てたメモリ上のビューを参照するため、各モジュールのテーブルは読まない
+     */
+    @GetMapping("/{orderId}/view")
+    public ResponseEntity<OrderView> getOrderView(@PathVariable UUID orderId) {
+        return orderViewProjection.find(orderId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * 注文・在庫・配送をまとめて返す（各モジュールへの問い合わせはVirtual Thread上で並行して行う）
+     * 期限（app.order-detail.deadline）までに揃わなかった場合は504を返す
+     */
+    @GetMapping("/{orderId}/detail")
+    public ResponseEntity<OrderDetailAggregator.OrderDetail> getOrderDetail(@PathVariable UUID orderId) {
+        try {
+            return ResponseEntity.ok(orderDetailAggregator.fetchStructured(
+                    orderId, orderDetailProperties.deadline(), Duration.ZERO));
+        } catch (TimeoutException e) {
+            log.warn("注文詳細の取得が期限内に完了しませんでした: 注文ID={}, 期限={}", orderId, orderDetailProperties.deadline());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+    }
+    
     @GetMapping("/{orderId}/shipment")
     public ResponseEntity<ShipmentDto> getShipment(@PathVariable UUID orderId) {
         ShipmentDto shipment = shippingService.getShipment(orderId);
@@ -71,6 +145,23 @@ public class OrderController {
         return ResponseEntity.ok(item);
     }
     
+    /**
+     * 後続モジュールのバルクヘッドが待機上限に達している場合は新規注文を受け付けない
+     * （イベントリスナーが拒否されて未完了のイベントが溜まり続けるのを防ぐ）
+     */
+    private boolean isOverloaded() {
+        Optional<Bulkhead> saturated = bulkheadRegistry.findSaturated();
+        saturated.ifPresent(bulkhead -> log.warn("バルクヘッドが飽和しているため注文を受け付けません: モジュール={}", 
+                bulkhead.getName()));
+        return saturated.isPresent();
+    }
+    
+    private <T> ResponseEntity<T> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+    
     public record CreateOrderRequest(
             String customerId,
             String productId,
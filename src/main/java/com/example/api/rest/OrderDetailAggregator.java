@@ -0,0 +1,111 @@
+package com.example.api.rest;
+
+import com.example.inventory.application.InventoryDto;
+import com.example.inventory.application.InventoryService;
+import com.example.order.application.OrderDto;
+import com.example.order.application.OrderService;
+import com.example.shared.stub.StubServiceClient;
+import com.example.shipping.application.ShipmentDto;
+import com.example.shipping.application.ShippingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 注文・在庫・配送の各モジュールへの問い合わせを1つの注文詳細にまとめる
+ * 在庫の問い合わせには注文の商品IDが必要なため、「注文→在庫」と「配送」の2つを並行して実行する
+ * （逐次実行では3回分、並行実行では max(注文+在庫, 配送) の待ち時間になる）
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderDetailAggregator {
+    
+    // 各モジュールの外部I/Oのメトリクス（app.stub-service.calls）と混ざらないよう、ベンチマーク用の名前で呼び出す
+    private static final String EXTERNAL_API = "order-detail";
+    private static final ThreadFactory SUBTASK_THREADS = Thread.ofVirtual().name("order-detail-vt-", 0).factory();
+    
+    private final OrderService orderService;
+    private final InventoryService inventoryService;
+    private final ShippingService shippingService;
+    private final StubServiceClient stubServiceClient;
+    
+    /**
+     * StructuredTaskScopeで並行して取得する
+     * いずれかの問い合わせが失敗した時点で残りの問い合わせは中断し、その例外をそのまま投げる
+     * 期限までに揃わなかった場合も残りを中断してTimeoutExceptionを投げる
+     *
+     * @param simulatedIoDelay 各問い合わせの前に挟む外部API呼び出しの応答時間（ベンチマーク用。通常はDuration.ZERO）
+     */
+    public OrderDetail fetchStructured(UUID orderId, Duration deadline, Duration simulatedIoDelay)
+            throws TimeoutException {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure("order-detail", SUBTASK_THREADS)) {
+            StructuredTaskScope.Subtask<OrderWithInventory> orderWithInventory = scope.fork(() -> {
+                OrderDto order = fetchOrder(orderId, simulatedIoDelay);
+                return new OrderWithInventory(order, fetchInventory(order.productId(), simulatedIoDelay));
+            });
+            StructuredTaskScope.Subtask<ShipmentDto> shipment = scope.fork(() -> fetchShipment(orderId, simulatedIoDelay));
+            
+            scope.joinUntil(Instant.now().plus(deadline));
+            scope.throwIfFailed(OrderDetailAggregator::propagate);
+            
+            return new OrderDetail(orderWithInventory.get().order(), orderWithInventory.get().inventory(), shipment.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching order detail: " + orderId, e);
+        }
+    }
+    
+    /**
+     * 比較用に、同じ問い合わせを呼び出し元のスレッドで順に実行する
+     */
+    public OrderDetail fetchSequential(UUID orderId, Duration simulatedIoDelay) {
+        OrderDto order = fetchOrder(orderId, simulatedIoDelay);
+        InventoryDto inventory = fetchInventory(order.productId(), simulatedIoDelay);
+        ShipmentDto shipment = fetchShipment(orderId, simulatedIoDelay);
+        return new OrderDetail(order, inventory, shipment);
+    }
+    
+    private OrderDto fetchOrder(UUID orderId, Duration simulatedIoDelay) {
+        simulateIo(simulatedIoDelay);
+        return orderService.getOrder(orderId);
+    }
+    
+    private InventoryDto fetchInventory(String productId, Duration simulatedIoDelay) {
+        simulateIo(simulatedIoDelay);
+        return inventoryService.getInventory(productId);
+    }
+    
+    /**
+     * 配送がまだ作成されていない注文もあるため、見つからない場合はnullとする（失敗扱いにしない）
+     */
+    private ShipmentDto fetchShipment(UUID orderId, Duration simulatedIoDelay) {
+        simulateIo(simulatedIoDelay);
+        return shippingService.findShipment(orderId).orElse(null);
+    }
+    
+    private void simulateIo(Duration delay) {
+        if (!delay.isZero()) {
+            stubServiceClient.call(EXTERNAL_API, delay.toMillis());
+        }
+    }
+    
+    private static RuntimeException propagate(Throwable failure) {
+        return failure instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new IllegalStateException(failure);
+    }
+    
+    public record OrderDetail(
+            OrderDto order,
+            InventoryDto inventory,
+            ShipmentDto shipment
+    ) {}
+    
+    private record OrderWithInventory(OrderDto order, InventoryDto inventory) {}
+}
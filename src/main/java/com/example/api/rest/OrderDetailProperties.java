@@ -0,0 +1,14 @@
+package com.example.api.rest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param deadline 注文詳細の取得（並行して呼び出す各モジュールの問い合わせ全体）の期限
+ */
+@ConfigurationProperties(prefix = "app.order-detail")
+public record OrderDetailProperties(
+    @DefaultValue("2s") Duration deadline
+) {}
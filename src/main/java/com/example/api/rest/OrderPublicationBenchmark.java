@@ -0,0 +1,210 @@
+package com.example.api.rest;
+
+import com.example.shared.concurrent.Bulkhead;
+import com.example.shared.concurrent.BulkheadRegistry;
+import com.example.shared.events.AfterCommitEventPublisher;
+import com.example.shared.events.EventPublicationProperties;
+import com.example.shared.loadgen.JobProgress;
+import com.example.shared.loadgen.LoadTasks;
+import com.example.shared.metrics.LatencyRecorder;
+import com.example.shared.metrics.LatencySummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * イベントの発行方式（app.events.publication.mode）ごとに、POST /api/ordersをHTTPで呼び出して応答時間を比較する
+ * OrderServiceBenchmark（JMH）と異なり、HTTP・JSON変換・バルクヘッドによる503を含めたエンドツーエンドの値になる
+ * 実行中は発行方式をアプリケーション全体で切り替えるため、他の負荷と同時に実行しない
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPublicationBenchmark {
+    
+    // 計測前に各方式で送るリクエスト数（JITコンパイルとHTTP接続の確立を計測に含めない）
+    private static final int WARMUP_REQUESTS = 200;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration DRAIN_POLL_INTERVAL = Duration.ofMillis(20);
+    
+    private final AfterCommitEventPublisher afterCommitEventPublisher;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Environment environment;
+    
+    /**
+     * 方式ごとに、ウォームアップ → 計測 → 後続の処理（イベントの発行とリスナー）の完了待ちを行う
+     * 終了後（中断時を含む）は実行前の方式に戻す
+     *
+     * @param requests 方式ごとに計測するリクエスト数
+     * @param concurrency 同時に送るリクエスト数の上限
+     */
+    public PublicationResult run(List<EventPublicationProperties.Mode> modes, int requests, int concurrency,
+                                 JobProgress progress) {
+        progress.setPlanned((long) modes.size() * requests);
+        URI baseUri = URI.create("http://localhost:" + environment.getRequiredProperty("local.server.port"));
+        EventPublicationProperties.Mode originalMode = afterCommitEventPublisher.getMode();
+        log.info("発行方式ごとの注文作成ベンチマーク開始: 方式={}, リクエスト数={}, 同時実行数={}", modes, requests, concurrency);
+        
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build()) {
+            // 在庫切れで注文がキャンセルされると後続の処理が変わるため、全リクエスト分の在庫を用意する
+            String productId = "publication-benchmark-" + UUID.randomUUID();
+            long stock = (long) modes.size() * (requests + WARMUP_REQUESTS);
+            send(httpClient, baseUri.resolve("/api/orders/inventory"),
+                    "{\"productId\":\"" + productId + "\",\"quantity\":" + stock + "}");
+            
+            List<Row> rows = new ArrayList<>();
+            for (EventPublicationProperties.Mode mode : modes) {
+                afterCommitEventPublisher.switchMode(mode);
+                runRequests(httpClient, executor, baseUri, productId, WARMUP_REQUESTS, concurrency,
+                        new LatencyRecorder(), new LongAdder(), new JobProgress());
+                awaitDrain();
+                
+                LatencyRecorder latency = new LatencyRecorder();
+                LongAdder failed = new LongAdder();
+                long startNanos = System.nanoTime();
+                runRequests(httpClient, executor, baseUri, productId, requests, concurrency, latency, failed, progress);
+                long elapsedNanos = System.nanoTime() - startNanos;
+                long drainStartNanos = System.nanoTime();
+                awaitDrain();
+                long drainNanos = System.nanoTime() - drainStartNanos;
+                
+                LatencySummary summary = latency.summary();
+                Row row = new Row(mode, Duration.ofNanos(elapsedNanos).toMillis(),
+                        summary.count() / (elapsedNanos / 1_000_000_000.0), failed.sum(),
+                        Duration.ofNanos(drainNanos).toMillis(), summary);
+                log.info("発行方式={}: 総時間={}ms, スループット={} req/sec, p50={}ms, p99={}ms, 失敗={}, 後続処理の完了待ち={}ms",
+                        mode, row.totalTimeMs(), String.format("%.2f", row.throughput()),
+                        String.format("%.2f", summary.p50Ms()), String.format("%.2f", summary.p99Ms()),
+                        row.failed(), row.drainTimeMs());
+                rows.add(row);
+            }
+            return new PublicationResult(requests, concurrency, rows);
+        } finally {
+            afterCommitEventPublisher.switchMode(originalMode);
+            executor.shutdownNow();
+        }
+    }
+    
+    private void runRequests(HttpClient httpClient, ExecutorService executor, URI baseUri, String productId,
+                             int requests, int concurrency, LatencyRecorder latency, LongAdder failed,
+                             JobProgress progress) {
+        URI ordersUri = baseUri.resolve("/api/orders");
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            String body = "{\"customerId\":\"customer-" + (i % 100) + "\",\"productId\":\"" + productId
+                    + "\",\"quantity\":1,\"unitPrice\":1000.00}";
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failed.increment();
+                    progress.record(false, 0);
+                    return;
+                }
+                long startNanos = System.nanoTime();
+                try {
+                    send(httpClient, ordersUri, body);
+                    progress.record(true, latency.recordSince(startNanos) - startNanos);
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    progress.record(false, System.nanoTime() - startNanos);
+                } finally {
+                    permits.release();
+                }
+            }, executor));
+        }
+        LoadTasks.awaitAll(futures, executor);
+    }
+    
+    /**
+     * 2xx以外の応答（バルクヘッドの飽和による503を含む）はIllegalStateExceptionにする
+     */
+    private static void send(HttpClient httpClient, URI uri, String json) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Unexpected status " + response.statusCode() + " from " + uri);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Request to " + uri + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Request to " + uri + " was interrupted", e);
+        }
+    }
+    
+    /**
+     * コミット後の発行待ちと、各モジュールのリスナーの実行・待機がなくなるまで待つ
+     * 前の方式で発行したイベントの処理が次の方式の計測に混ざらないようにする
+     */
+    private void awaitDrain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (!isDrained()) {
+            if (System.nanoTime() > deadline) {
+                log.warn("後続の処理が{}秒以内に完了しませんでした: 発行待ち={}", DRAIN_TIMEOUT.toSeconds(),
+                        afterCommitEventPublisher.inFlight());
+                return;
+            }
+            try {
+                Thread.sleep(DRAIN_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Order publication benchmark was cancelled");
+            }
+        }
+    }
+    
+    private boolean isDrained() {
+        return afterCommitEventPublisher.inFlight() == 0 && bulkheadRegistry.all().stream()
+                .map(Bulkhead::snapshot)
+                .allMatch(snapshot -> snapshot.inFlight() == 0 && snapshot.waiting() == 0);
+    }
+    
+    /**
+     * @param throughput 成功したリクエスト数 / 総時間（req/sec）
+     * @param drainTimeMs 最後の応答から、イベントの発行とリスナーの処理がすべて終わるまでの時間
+     */
+    public record Row(
+            EventPublicationProperties.Mode mode,
+            long totalTimeMs,
+            double throughput,
+            long failed,
+            long drainTimeMs,
+            LatencySummary latency
+    ) {}
+    
+    public record PublicationResult(
+            int requests,
+            int concurrency,
+            List<Row> rows
+    ) {}
+}
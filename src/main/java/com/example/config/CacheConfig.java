@@ -0,0 +1,41 @@
+package com.example.config;
+
+import com.example.shared.cache.ReadCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    // 読み取りキャッシュの名前（@Cacheableとイベントによる無効化で使用）
+    public static final String INVENTORY_CACHE = "inventory";
+    public static final String ORDER_CACHE = "orders";
+    public static final String SHIPMENT_CACHE = "shipments";
+    
+    /**
+     * キャッシュごとに件数の上限と有効期間を設定する
+     * 起動時に登録したキャッシュはSpring Bootがcache.gets（result=hit/miss）などのメトリクスに登録する
+     */
+    @Bean
+    public CacheManager cacheManager(ReadCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // 登録していないキャッシュ名は実行時に作らせない（上限のないキャッシュができるのを防ぐ）
+        cacheManager.setCacheNames(List.of());
+        for (String name : List.of(INVENTORY_CACHE, ORDER_CACHE, SHIPMENT_CACHE)) {
+            ReadCacheProperties.Spec spec = properties.caches().getOrDefault(name, ReadCacheProperties.Spec.DEFAULT);
+            cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                    .maximumSize(spec.maximumSize())
+                    .expireAfterWrite(spec.ttl())
+                    .recordStats()
+                    .build());
+        }
+        return cacheManager;
+    }
+}
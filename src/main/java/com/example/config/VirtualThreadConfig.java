@@ -1,20 +1,72 @@
 package com.example.config;
 
+import com.example.shared.concurrent.BulkheadExecutor;
+import com.example.shared.concurrent.BulkheadProperties;
+import com.example.shared.concurrent.BulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
 @Configuration
 @EnableAsync
-public class VirtualThreadConfig {
+public class VirtualThreadConfig implements AsyncConfigurer {
+    
+    // モジュールごとのイベントリスナー用Executor（@Asyncの修飾子として使用）
+    public static final String ORDER_TASK_EXECUTOR = "orderTaskExecutor";
+    public static final String INVENTORY_TASK_EXECUTOR = "inventoryTaskExecutor";
+    public static final String SHIPPING_TASK_EXECUTOR = "shippingTaskExecutor";
+    public static final String NOTIFICATION_TASK_EXECUTOR = "notificationTaskExecutor";
+    // コミット後のイベント発行（AfterCommitEventPublisher）用Executor
+    public static final String PUBLICATION_TASK_EXECUTOR = "publicationTaskExecutor";
     
     @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
     public Executor applicationTaskExecutor() {
         // Use virtual threads for async operations
         return Executors.newVirtualThreadPerTaskExecutor();
     }
+    
+    @Override
+    public Executor getAsyncExecutor() {
+        // @EnableSchedulingのTaskSchedulerが@Asyncの実行先に選ばれないよう明示する
+        return applicationTaskExecutor();
+    }
+    
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        return new BulkheadRegistry(
+                List.of("order", "inventory", "shipping", "notification", "publication"), properties, meterRegistry);
+    }
+    
+    // Virtual Threadはタスクごとに作成するが、同時実行数はモジュールごとのバルクヘッドで制限する
+    @Bean(name = ORDER_TASK_EXECUTOR)
+    public Executor orderTaskExecutor(BulkheadRegistry bulkheadRegistry) {
+        return new BulkheadExecutor(bulkheadRegistry.get("order"));
+    }
+    
+    @Bean(name = INVENTORY_TASK_EXECUTOR)
+    public Executor inventoryTaskExecutor(BulkheadRegistry bulkheadRegistry) {
+        return new BulkheadExecutor(bulkheadRegistry.get("inventory"));
+    }
+    
+    @Bean(name = SHIPPING_TASK_EXECUTOR)
+    public Executor shippingTaskExecutor(BulkheadRegistry bulkheadRegistry) {
+        return new BulkheadExecutor(bulkheadRegistry.get("shipping"));
+    }
+    
+    @Bean(name = NOTIFICATION_TASK_EXECUTOR)
+    public Executor notificationTaskExecutor(BulkheadRegistry bulkheadRegistry) {
+        return new BulkheadExecutor(bulkheadRegistry.get("notification"));
+    }
+    
+    @Bean(name = PUBLICATION_TASK_EXECUTOR)
+    public Executor publicationTaskExecutor(BulkheadRegistry bulkheadRegistry) {
+        return new BulkheadExecutor(bulkheadRegistry.get("publication"));
+    }
 }
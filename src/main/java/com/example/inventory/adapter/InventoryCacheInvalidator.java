@@ -0,0 +1,23 @@
+package com.example.inventory.adapter;
+
+import com.example.config.CacheConfig;
+import com.example.shared.cache.CacheEvictor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 在庫の読み取りキャッシュを、在庫を変えたイベントの発行元のコミット後に無効化する
+ * イベント登録簿を経由しないよう@ApplicationModuleListenerではなく同期の@EventListenerで受け取る
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryCacheInvalidator {
+    
+    private final CacheEvictor cacheEvictor;
+    
+    @EventListener
+    public void onInventoryReserved(InventoryReservedEvent event) {
+        cacheEvictor.evictAfterCommit(CacheConfig.INVENTORY_CACHE, event.productId());
+    }
+}
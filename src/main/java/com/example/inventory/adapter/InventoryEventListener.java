@@ -1,7 +1,12 @@
 package com.example.inventory.adapter;
 
-import com.example.inventory.domain.InventoryItem;
-import com.example.inventory.infrastructure.InventoryRepository;
+import com.example.config.CacheConfig;
+import com.example.config.VirtualThreadConfig;
+import com.example.inventory.application.InventoryReservationService;
+import com.example.inventory.application.ReservationResult;
+import com.example.shared.cache.CacheEvictor;
+import com.example.shared.saga.SagaLatencyTracker;
+import com.example.shared.saga.SagaOutcome;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -14,36 +19,27 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class InventoryEventListener {
     
-    private final InventoryRepository inventoryRepository;
+    private final InventoryReservationService reservationService;
     private final ApplicationEventPublisher eventPublisher;
+    private final SagaLatencyTracker sagaTracker;
+    private final CacheEvictor cacheEvictor;
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.INVENTORY_TASK_EXECUTOR)
     public void onOrderCreated(com.example.order.adapter.OrderCreatedEvent event) {
-        log.info("OrderCreatedEventを受信しました: 商品ID={}, 数量={} (スレッド: {})", 
-                event.productId(), event.quantity(), Thread.currentThread());
+        long startNanos = sagaTracker.begin("inventory.reserve", event.trace());
+        log.info("OrderCreatedEventを受信しました: 商品ID={}, 数量={}, 相関ID={} (スレッド: {})", 
+                event.productId(), event.quantity(), event.trace().correlationId(), Thread.currentThread());
         
-        // Simulate I/O operation (e.g., database query, external service call)
-        simulateIoOperation();
+        // 外部の在庫照会サービスの呼び出しは引当エンジン側で行う（マイクロバッチ方式ではバッチごとに1回）
+        ReservationResult result = reservationService.reserve(event.orderId(), event.productId(), event.quantity());
         
-        InventoryItem item = inventoryRepository.findByProductId(event.productId())
-                .orElseGet(() -> {
-                    log.warn("在庫に商品が見つかりませんでした: 商品ID={}, 新規エントリを作成します", event.productId());
-                    return InventoryItem.builder()
-                            .productId(event.productId())
-                            .availableQuantity(0)
-                            .reservedQuantity(0)
-                            .build();
-                });
-        
-        if (item.hasEnoughStock(event.quantity())) {
-            item.reserve(event.quantity());
-            inventoryRepository.save(item);
-            
+        if (result.reserved()) {
             InventoryReservedEvent reservedEvent = new InventoryReservedEvent(
                     event.orderId(),
                     event.productId(),
-                    event.quantity()
+                    event.quantity(),
+                    event.trace().next()
             );
             
             eventPublisher.publishEvent(reservedEvent);
@@ -53,35 +49,30 @@ public class InventoryEventListener {
                     event.orderId(),
                     event.productId(),
                     event.quantity(),
-                    "在庫不足. 利用可能: " + item.getAvailableQuantity() + ", 要求: " + event.quantity()
+                    result.failureReason(event.quantity()),
+                    event.trace().next()
             );
             
             eventPublisher.publishEvent(failedEvent);
             log.warn("在庫確保に失敗しました: 注文ID={}", event.orderId());
         }
+        sagaTracker.end("inventory.reserve", startNanos);
     }
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.INVENTORY_TASK_EXECUTOR)
     public void onOrderCancelled(com.example.order.adapter.OrderCancelledEvent event) {
-        log.info("OrderCancelledEventを受信しました: 注文ID={} (スレッド: {})", 
-                event.orderId(), Thread.currentThread());
-        
-        InventoryItem item = inventoryRepository.findByProductId(event.productId())
-                .orElseThrow(() -> new RuntimeException("Product not found: " + event.productId()));
+        long startNanos = sagaTracker.begin("inventory.release", event.trace());
+        log.info("OrderCancelledEventを受信しました: 注文ID={}, 相関ID={} (スレッド: {})", 
+                event.orderId(), event.trace().correlationId(), Thread.currentThread());
         
-        item.release(event.quantity());
-        inventoryRepository.save(item);
+        // 引当できなかった注文・解放済みの注文（イベントの再送）では在庫を戻さない
+        reservationService.release(event.orderId(), event.productId());
+        // 解放はイベントを発行しないため、ここで読み取りキャッシュを無効化する
+        cacheEvictor.evictAfterCommit(CacheConfig.INVENTORY_CACHE, event.productId());
+        sagaTracker.end("inventory.release", startNanos);
+        sagaTracker.complete(event.trace(), SagaOutcome.CANCELLED);
         
         log.info("キャンセルされた注文の在庫を解放しました: 注文ID={}", event.orderId());
     }
-    
-    private void simulateIoOperation() {
-        try {
-            // Simulate network I/O or database query delay
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
 }
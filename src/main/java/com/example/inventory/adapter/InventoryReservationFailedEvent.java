@@ -6,6 +6,7 @@ public record InventoryReservationFailedEvent(
     UUID orderId,
     String productId,
     Integer quantity,
-    String reason
+    String reason,
+    com.example.shared.saga.SagaTrace trace
 ) {
 }
@@ -0,0 +1,233 @@
+package com.example.inventory.application;
+
+import com.example.inventory.domain.InventoryItem;
+import com.example.inventory.domain.InventoryReservation;
+import com.example.inventory.infrastructure.InventoryRepository;
+import com.example.inventory.infrastructure.InventoryReservationRepository;
+import com.example.shared.retry.OptimisticRetryExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 商品IDをハッシュしてN個のシャードに割り当て、シャードごとのアクター（1本のVirtual Thread）で引当・解放を行う方式
+ * 同じ商品の要求は常に同じアクターが順に処理するため、人気商品の行で楽観ロックが競合しない。
+ * 異なるシャードの商品は並行して処理される。
+ * 外部の在庫照会サービスの呼び出しは、アクターを待たせないよう呼び出し元のスレッドで行う。
+ */
+@Component
+@Slf4j
+public class ActorReservationEngine implements InventoryReservationEngine {
+    
+    private final InventoryRepository inventoryRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final ExternalInventoryLookup externalInventoryLookup;
+    private final List<ReservationActorShard> shards;
+    private final long replyTimeoutMs;
+    
+    public ActorReservationEngine(InventoryRepository inventoryRepository,
+                                  InventoryReservationRepository reservationRepository,
+                                  OptimisticRetryExecutor retryExecutor,
+                                  ExternalInventoryLookup externalInventoryLookup,
+                                  InventoryReservationProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.reservationRepository = reservationRepository;
+        this.retryExecutor = retryExecutor;
+        this.externalInventoryLookup = externalInventoryLookup;
+        this.shards = IntStream.range(0, properties.actor().shards())
+                .mapToObj(index -> new ReservationActorShard(index, properties.actor(), this::handle, meterRegistry))
+                .toList();
+        this.replyTimeoutMs = properties.replyTimeoutMs();
+    }
+    
+    @PostConstruct
+    void start() {
+        shards.forEach(ReservationActorShard::start);
+    }
+    
+    @PreDestroy
+    void stop() {
+        shards.forEach(ReservationActorShard::stop);
+    }
+    
+    @Override
+    public ReservationMode mode() {
+        return ReservationMode.ACTOR;
+    }
+    
+    @Override
+    public ReservationResult reserve(UUID orderId, String productId, int quantity) {
+        externalInventoryLookup.call();
+        return ask(ReservationActorShard.Kind.RESERVE, orderId, productId, quantity);
+    }
+    
+    @Override
+    public void release(UUID orderId, String productId) {
+        ask(ReservationActorShard.Kind.RELEASE, orderId, productId, 0);
+    }
+    
+    /**
+     * シャードごとのメールボックスの深さと処理件数
+     */
+    public List<ShardSnapshot> snapshots() {
+        return shards.stream()
+                .map(ReservationActorShard::snapshot)
+                .toList();
+    }
+    
+    /**
+     * 結果をreplyTimeoutMsまで待つ
+     * 待ちきれなかった要求もアクターが後で処理することがあるが、引当結果は注文ごとに記録されるため、
+     * イベントの再送時には在庫を二重に引き当てずに記録済みの結果を返す
+     */
+    private ReservationResult ask(ReservationActorShard.Kind kind, UUID orderId, String productId, int quantity) {
+        ReservationActorShard.Message message = new ReservationActorShard.Message(
+                kind, orderId, productId, quantity, System.nanoTime(), new CompletableFuture<>());
+        ReservationActorShard shard = shardOf(productId);
+        if (!shard.tell(message)) {
+            throw new IllegalStateException("Reservation actor mailbox is full: product " + productId);
+        }
+        try {
+            return message.result().get(replyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for reservation actor", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out after " + replyTimeoutMs + "ms waiting for reservation actor: product "
+                    + productId, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private ReservationActorShard shardOf(String productId) {
+        int hash = productId.hashCode();
+        // 下位ビットに偏ったハッシュでもシャードが散らばるよう、上位ビットを混ぜる
+        return shards.get(Math.floorMod(hash ^ (hash >>> 16), shards.size()));
+    }
+    
+    /**
+     * アクターのスレッドで、取り出したメッセージを1トランザクションで受付順に処理する
+     * 楽観ロックが競合するのは他の方式・在庫登録と同時に更新した場合だけで、そのときは最新の在庫で処理し直す
+     * 引当結果は在庫の更新と同じトランザクションで記録し、記録済みの注文は在庫を更新せずに記録済みの結果を返す
+     * 解放は引当済みかつ未解放の記録がある注文だけ、記録された数量を戻して解放済みにする
+     */
+    private void handle(List<ReservationActorShard.Message> batch) {
+        List<Outcome> outcomes;
+        try {
+            outcomes = retryExecutor.execute("inventory.reserve-actor", () -> apply(batch));
+        } catch (RuntimeException e) {
+            log.error("引当アクターの処理に失敗しました: 要求数={}", batch.size(), e);
+            batch.forEach(message -> message.result().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            if (outcome.error() != null) {
+                batch.get(i).result().completeExceptionally(outcome.error());
+            } else {
+                batch.get(i).result().complete(outcome.result());
+            }
+        }
+    }
+    
+    private List<Outcome> apply(List<ReservationActorShard.Message> batch) {
+        Map<String, InventoryItem> items = inventoryRepository.findByProductIdIn(
+                        batch.stream().map(ReservationActorShard.Message::productId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+        
+        Map<UUID, InventoryReservation> recorded = new HashMap<>();
+        reservationRepository.findAllById(batch.stream()
+                        .map(ReservationActorShard.Message::orderId)
+                        .collect(Collectors.toSet()))
+                .forEach(reservation -> recorded.put(reservation.getOrderId(), reservation));
+        
+        Set<InventoryItem> touched = new LinkedHashSet<>();
+        List<InventoryReservation> newRecords = new ArrayList<>();
+        List<InventoryReservation> released = new ArrayList<>();
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        for (ReservationActorShard.Message message : batch) {
+            if (message.kind() == ReservationActorShard.Kind.RESERVE && recorded.containsKey(message.orderId())) {
+                outcomes.add(new Outcome(ReservationResult.from(recorded.get(message.orderId())), null));
+                continue;
+            }
+            InventoryItem item = items.get(message.productId());
+            if (message.kind() == ReservationActorShard.Kind.RESERVE) {
+                ReservationResult result;
+                if (item == null) {
+                    log.warn("在庫に商品が見つかりませんでした: 商品ID={}", message.productId());
+                    result = ReservationResult.rejected(0);
+                } else if (!item.hasEnoughStock(message.quantity())) {
+                    result = ReservationResult.rejected(item.getAvailableQuantity());
+                } else {
+                    item.reserve(message.quantity());
+                    touched.add(item);
+                    result = ReservationResult.reserved(item.getAvailableQuantity());
+                }
+                InventoryReservation record = result.recordFor(message.orderId(), message.productId(), message.quantity());
+                recorded.put(message.orderId(), record);
+                newRecords.add(record);
+                outcomes.add(new Outcome(result, null));
+            } else if (recorded.get(message.orderId()) == null || !recorded.get(message.orderId()).isReleasable()) {
+                log.info("解放する引当がありません: 注文ID={}", message.orderId());
+                outcomes.add(new Outcome(null, null));
+            } else if (item == null) {
+                log.warn("在庫に商品が見つかりませんでした: 商品ID={}", message.productId());
+                outcomes.add(new Outcome(null, new RuntimeException("Product not found: " + message.productId())));
+            } else {
+                InventoryReservation reservation = recorded.get(message.orderId());
+                try {
+                    item.release(reservation.getQuantity());
+                    touched.add(item);
+                    reservation.markReleased();
+                    released.add(reservation);
+                    outcomes.add(new Outcome(null, null));
+                } catch (IllegalStateException e) {
+                    // 同じバッチの他の要求は処理を続ける
+                    outcomes.add(new Outcome(null, e));
+                }
+            }
+        }
+        inventoryRepository.saveAll(touched);
+        reservationRepository.saveAll(newRecords);
+        reservationRepository.saveAll(released);
+        return outcomes;
+    }
+    
+    private record Outcome(ReservationResult result, RuntimeException error) {}
+    
+    /**
+     * @param maxMailboxDepth 起動してからのメールボックスの最大の深さ
+     * @param meanMailboxWaitMs 投函から処理開始までの平均待ち時間
+     */
+    public record ShardSnapshot(
+        int shard,
+        int mailboxDepth,
+        int maxMailboxDepth,
+        long processed,
+        long rejected,
+        double meanMailboxWaitMs
+    ) {}
+}
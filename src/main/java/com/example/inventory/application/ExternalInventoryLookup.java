@@ -0,0 +1,22 @@
+package com.example.inventory.application;
+
+import com.example.shared.stub.StubServiceClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 引当時の外部I/O（在庫照会サービスの呼び出し）
+ * スタブの外部サービスを呼び出し、応答時間とエラー率はapp.stub-service.services.inventoryで設定する
+ */
+@Component
+@RequiredArgsConstructor
+class ExternalInventoryLookup {
+    
+    static final String SERVICE = "inventory";
+    
+    private final StubServiceClient stubServiceClient;
+    
+    void call() {
+        stubServiceClient.call(SERVICE);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.inventory.application;
 
 import com.example.inventory.domain.InventoryItem;
+import com.example.inventory.infrastructure.InventoryLedger;
 
 import java.util.UUID;
 
@@ -20,4 +21,14 @@ public record InventoryDto(
                 item.getTotalQuantity()
         );
     }
+    
+    public static InventoryDto from(InventoryItem item, InventoryLedger.Snapshot snapshot) {
+        return new InventoryDto(
+                item.getId(),
+                item.getProductId(),
+                snapshot.availableQuantity(),
+                snapshot.reservedQuantity(),
+                snapshot.availableQuantity() + snapshot.reservedQuantity()
+        );
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.inventory.application;
+
+import java.util.UUID;
+
+/**
+ * 在庫の引当・解放を行うエンジン
+ * {@link ReservationMode}ごとに実装を切り替える
+ */
+public interface InventoryReservationEngine {
+    
+    ReservationMode mode();
+    
+    /**
+     * 注文IDごとに冪等に引当を行う
+     * 結果（引当できなかった場合も含む）はinventory_reservationsに記録し、
+     * イベントの再送などで同じ注文の要求が再び届いた場合は在庫を更新せずに記録済みの結果を返す
+     */
+    ReservationResult reserve(UUID orderId, String productId, int quantity);
+    
+    /**
+     * 注文の引当を冪等に解放する
+     * 注文の引当結果が引当済みかつ未解放の場合だけ、記録された数量を在庫に戻し、同じトランザクションで解放済みにする。
+     * 引当できなかった注文・解放済みの注文・引当を処理していない注文では何もしない
+     *
+     * @param productId 注文の商品（方式によっては処理するスレッドの割り当てに使う）
+     */
+    void release(UUID orderId, String productId);
+}
@@ -0,0 +1,36 @@
+package com.example.inventory.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param replyTimeoutMs MICRO_BATCH・ACTORで、呼び出し元が引当の結果を待つ上限
+ */
+@ConfigurationProperties(prefix = "app.inventory.reservation")
+public record InventoryReservationProperties(
+    @DefaultValue("JPA") ReservationMode mode,
+    @DefaultValue("200") long flushIntervalMs,
+    @DefaultValue("30000") long replyTimeoutMs,
+    @DefaultValue Batch batch,
+    @DefaultValue Actor actor
+) {
+    /**
+     * @param maxSize まとめる引当要求の最大件数
+     * @param maxWaitMs 最初の要求を受け付けてからバッチを確定するまでの最大待ち時間
+     */
+    public record Batch(
+        @DefaultValue("256") int maxSize,
+        @DefaultValue("10") long maxWaitMs
+    ) {}
+    
+    /**
+     * @param shards アクター（商品IDのハッシュで割り当てるシャード）の数
+     * @param mailboxCapacity シャードごとのメールボックスの上限（超えた要求は拒否する）
+     * @param maxBatchSize アクターが1トランザクションで処理するメッセージの最大件数
+     */
+    public record Actor(
+        @DefaultValue("16") int shards,
+        @DefaultValue("10000") int mailboxCapacity,
+        @DefaultValue("256") int maxBatchSize
+    ) {}
+}
@@ -0,0 +1,73 @@
+package com.example.inventory.application;
+
+import com.example.inventory.infrastructure.InventoryReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 現在の{@link ReservationMode}に応じたエンジンへ引当・解放を振り分ける
+ * 負荷テストで方式を比較できるよう、実行中にモードを切り替えられる
+ */
+@Service
+@Slf4j
+public class InventoryReservationService {
+    
+    private final Map<ReservationMode, InventoryReservationEngine> engines = new EnumMap<>(ReservationMode.class);
+    private final LedgerReservationEngine ledgerEngine;
+    private final InventoryReservationRepository reservationRepository;
+    private final AtomicReference<ReservationMode> currentMode;
+    
+    public InventoryReservationService(List<InventoryReservationEngine> engines,
+                                       LedgerReservationEngine ledgerEngine,
+                                       InventoryReservationRepository reservationRepository,
+                                       InventoryReservationProperties properties) {
+        engines.forEach(engine -> this.engines.put(engine.mode(), engine));
+        this.ledgerEngine = ledgerEngine;
+        this.reservationRepository = reservationRepository;
+        this.currentMode = new AtomicReference<>(properties.mode());
+        log.info("在庫引当モード: {}", properties.mode());
+    }
+    
+    public ReservationResult reserve(UUID orderId, String productId, int quantity) {
+        return engines.get(currentMode.get()).reserve(orderId, productId, quantity);
+    }
+    
+    /**
+     * 注文の引当結果（まだ引当を処理していない場合は空）
+     */
+    public Optional<ReservationResult> findReservation(UUID orderId) {
+        return reservationRepository.findById(orderId)
+                .map(ReservationResult::from);
+    }
+    
+    public void release(UUID orderId, String productId) {
+        engines.get(currentMode.get()).release(orderId, productId);
+    }
+    
+    public ReservationMode getMode() {
+        return currentMode.get();
+    }
+    
+    /**
+     * 引当モードを切り替える
+     * 注意: 引当処理の実行中に切り替えることは想定していない
+     */
+    public void switchMode(ReservationMode mode) {
+        ReservationMode previous = currentMode.getAndSet(mode);
+        if (previous == mode) {
+            return;
+        }
+        if (previous == ReservationMode.LEDGER) {
+            // 台帳の内容をDBへ反映してから破棄し、JPA方式が最新の在庫数を読めるようにする
+            ledgerEngine.flushAndEvict();
+        }
+        log.info("在庫引当モードを切り替えました: {} → {}", previous, mode);
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.inventory.application;
 
+import com.example.config.CacheConfig;
 import com.example.inventory.domain.InventoryItem;
+import com.example.inventory.infrastructure.InventoryLedger;
 import com.example.inventory.infrastructure.InventoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class InventoryService {
     
     private final InventoryRepository inventoryRepository;
+    private final InventoryLedger inventoryLedger;
     
     @Transactional
     public InventoryDto createInventoryItem(CreateInventoryItemCommand command) {
@@ -27,9 +31,17 @@ public class InventoryService {
         return InventoryDto.from(item);
     }
     
+    /**
+     * 引当（InventoryReservedEvent）と解放のたびにInventoryCacheInvalidatorが無効化する
+     */
+    @Cacheable(CacheConfig.INVENTORY_CACHE)
     public InventoryDto getInventory(String productId) {
         InventoryItem item = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
-        return InventoryDto.from(item);
+        
+        // 台帳方式ではDBへの書き戻しが遅れるため、台帳上の値を優先する
+        return inventoryLedger.find(productId)
+                .map(entry -> InventoryDto.from(item, entry.snapshot()))
+                .orElseGet(() -> InventoryDto.from(item));
     }
 }
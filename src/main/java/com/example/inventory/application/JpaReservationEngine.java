@@ -0,0 +1,92 @@
+package com.example.inventory.application;
+
+import com.example.inventory.domain.InventoryItem;
+import com.example.inventory.domain.InventoryReservation;
+import com.example.inventory.infrastructure.InventoryRepository;
+import com.example.inventory.infrastructure.InventoryReservationRepository;
+import com.example.shared.retry.OptimisticRetryExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JPAによる読み込み→更新→保存で引当を行う従来方式
+ * InventoryItemの@Versionで競合を検出し、{@link OptimisticRetryExecutor}で再試行する
+ * 注文ごとの引当結果は在庫の更新と同じトランザクションで記録する
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JpaReservationEngine implements InventoryReservationEngine {
+    
+    private final InventoryRepository inventoryRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final ExternalInventoryLookup externalInventoryLookup;
+    
+    @Override
+    public ReservationMode mode() {
+        return ReservationMode.JPA;
+    }
+    
+    @Override
+    public ReservationResult reserve(UUID orderId, String productId, int quantity) {
+        externalInventoryLookup.call();
+        return retryExecutor.execute("inventory.reserve", () -> doReserve(orderId, productId, quantity));
+    }
+    
+    @Override
+    public void release(UUID orderId, String productId) {
+        retryExecutor.executeWithoutResult("inventory.release", () -> doRelease(orderId));
+    }
+    
+    private ReservationResult doReserve(UUID orderId, String productId, int quantity) {
+        Optional<InventoryReservation> previous = reservationRepository.findById(orderId);
+        if (previous.isPresent()) {
+            log.info("引当は処理済みです: 注文ID={}", orderId);
+            return ReservationResult.from(previous.get());
+        }
+        
+        InventoryItem item = inventoryRepository.findByProductId(productId)
+                .orElseGet(() -> {
+                    log.warn("在庫に商品が見つかりませんでした: 商品ID={}, 新規エントリを作成します", productId);
+                    return InventoryItem.builder()
+                            .productId(productId)
+                            .availableQuantity(0)
+                            .reservedQuantity(0)
+                            .build();
+                });
+        
+        ReservationResult result;
+        if (item.hasEnoughStock(quantity)) {
+            item.reserve(quantity);
+            inventoryRepository.save(item);
+            result = ReservationResult.reserved(item.getAvailableQuantity());
+        } else {
+            result = ReservationResult.rejected(item.getAvailableQuantity());
+        }
+        reservationRepository.save(result.recordFor(orderId, productId, quantity));
+        return result;
+    }
+    
+    private void doRelease(UUID orderId) {
+        Optional<InventoryReservation> reservation = reservationRepository.findById(orderId)
+                .filter(InventoryReservation::isReleasable);
+        if (reservation.isEmpty()) {
+            log.info("解放する引当がありません: 注文ID={}", orderId);
+            return;
+        }
+        
+        String productId = reservation.get().getProductId();
+        InventoryItem item = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
+        
+        item.release(reservation.get().getQuantity());
+        inventoryRepository.save(item);
+        reservation.get().markReleased();
+        reservationRepository.save(reservation.get());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.inventory.application;
+
+import com.example.inventory.infrastructure.InventoryLedger;
+import com.example.inventory.domain.InventoryReservation;
+import com.example.inventory.infrastructure.InventoryRepository;
+import com.example.inventory.infrastructure.InventoryReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link InventoryLedger}上のCASで引当を行い、inventory_itemsへは定期的に書き戻す方式
+ * 同一商品への同時注文でも行ロックやlost updateが発生しない
+ * 在庫の書き戻しが非同期のため、注文ごとの引当結果は台帳の更新後に別に記録する（記録前に停止した場合は冪等にならない）
+ * 解放は逆に、解放済みの記録を先に保存してから台帳へ戻す
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerReservationEngine implements InventoryReservationEngine {
+    
+    private final InventoryLedger ledger;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final ExternalInventoryLookup externalInventoryLookup;
+    
+    @Override
+    public ReservationMode mode() {
+        return ReservationMode.LEDGER;
+    }
+    
+    @Override
+    public ReservationResult reserve(UUID orderId, String productId, int quantity) {
+        Optional<InventoryReservation> previous = reservationRepository.findById(orderId);
+        if (previous.isPresent()) {
+            log.info("引当は処理済みです: 注文ID={}", orderId);
+            return ReservationResult.from(previous.get());
+        }
+        
+        externalInventoryLookup.call();
+        ReservationResult result;
+        Optional<InventoryLedger.Entry> entry = ledger.load(productId, this::loadSnapshot);
+        if (entry.isEmpty()) {
+            log.warn("在庫に商品が見つかりませんでした: 商品ID={}", productId);
+            result = ReservationResult.rejected(0);
+        } else {
+            boolean reserved = entry.get().tryReserve(quantity);
+            int available = entry.get().snapshot().availableQuantity();
+            result = reserved ? ReservationResult.reserved(available) : ReservationResult.rejected(available);
+        }
+        reservationRepository.save(result.recordFor(orderId, productId, quantity));
+        return result;
+    }
+    
+    @Override
+    public void release(UUID orderId, String productId) {
+        Optional<InventoryReservation> reservation = reservationRepository.findById(orderId)
+                .filter(InventoryReservation::isReleasable);
+        if (reservation.isEmpty()) {
+            log.info("解放する引当がありません: 注文ID={}", orderId);
+            return;
+        }
+        
+        InventoryLedger.Entry entry = ledger.load(productId, this::loadSnapshot)
+                .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
+        reservation.get().markReleased();
+        reservationRepository.save(reservation.get());
+        entry.release(reservation.get().getQuantity());
+    }
+    
+    /**
+     * 変更された台帳エントリをinventory_itemsへ書き戻す（write-behind）
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.flush-interval-ms:200}")
+    public void flush() {
+        List<InventoryLedger.Snapshot> dirty = ledger.drainDirty();
+        for (InventoryLedger.Snapshot snapshot : dirty) {
+            try {
+                inventoryRepository.updateQuantities(
+                        snapshot.productId(), snapshot.availableQuantity(), snapshot.reservedQuantity());
+            } catch (RuntimeException e) {
+                log.error("在庫台帳の書き戻しに失敗しました: 商品ID={}", snapshot.productId(), e);
+                ledger.markDirty(snapshot.productId());
+            }
+        }
+        if (!dirty.isEmpty()) {
+            log.debug("在庫台帳を書き戻しました: {}件", dirty.size());
+        }
+    }
+    
+    /**
+     * 書き戻しを完了させてから台帳を破棄する（JPA方式へ切り替える際に使用）
+     */
+    public void flushAndEvict() {
+        flush();
+        ledger.clear();
+    }
+    
+    private Optional<InventoryLedger.Snapshot> loadSnapshot(String productId) {
+        return inventoryRepository.findByProductId(productId)
+                .map(item -> new InventoryLedger.Snapshot(
+                        item.getProductId(), item.getAvailableQuantity(), item.getReservedQuantity()));
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.inventory.application;
+
+import com.example.inventory.domain.InventoryItem;
+import com.example.inventory.domain.InventoryReservation;
+import com.example.inventory.infrastructure.InventoryRepository;
+import com.example.inventory.infrastructure.InventoryReservationRepository;
+import com.example.shared.retry.OptimisticRetryExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 引当要求を件数・時間で区切ってまとめ、1トランザクションで処理する方式
+ * 商品IDごとに在庫を1回だけ読み込み、受け付けた数量の合計を1回で反映する（注文ごとの引当結果も同じトランザクションで記録する）。
+ * 外部の在庫照会サービスの呼び出しもバッチごとに1回になる。
+ * 呼び出し元（Virtual Thread）はバッチの確定まで待機し、結果を受け取ってからイベントを発行する。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MicroBatchReservationEngine implements InventoryReservationEngine {
+    
+    private final InventoryRepository inventoryRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final JpaReservationEngine jpaReservationEngine;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final InventoryReservationProperties properties;
+    private final ExternalInventoryLookup externalInventoryLookup;
+    
+    private final LinkedBlockingQueue<PendingReservation> queue = new LinkedBlockingQueue<>();
+    private volatile boolean stopped;
+    private Thread batcher;
+    
+    @PostConstruct
+    void start() {
+        batcher = Thread.ofVirtual().name("inventory-micro-batcher").start(this::runBatchLoop);
+    }
+    
+    /**
+     * 以降の要求を拒否し、バッチ処理のスレッドに割り込む
+     * 待機中の要求は、スレッドの終了時に失敗として完了する
+     */
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        batcher.interrupt();
+    }
+    
+    @Override
+    public ReservationMode mode() {
+        return ReservationMode.MICRO_BATCH;
+    }
+    
+    /**
+     * バッチの確定をreplyTimeoutMsまで待つ
+     * 待ちきれなかった要求も後でバッチに含まれることがあるが、引当結果は注文ごとに記録されるため、
+     * イベントの再送時には在庫を二重に引き当てずに記録済みの結果を返す
+     */
+    @Override
+    public ReservationResult reserve(UUID orderId, String productId, int quantity) {
+        if (stopped) {
+            throw stoppedException();
+        }
+        PendingReservation pending = new PendingReservation(orderId, productId, quantity, new CompletableFuture<>());
+        queue.add(pending);
+        // 停止と同時に受け付けた場合、終了時の取り出しに間に合わなかった要求は誰にも処理されない
+        if (stopped && queue.remove(pending)) {
+            throw stoppedException();
+        }
+        long replyTimeoutMs = properties.replyTimeoutMs();
+        try {
+            return pending.result().get(replyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for reservation batch", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out after " + replyTimeoutMs + "ms waiting for reservation batch: product "
+                    + productId, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+    
+    @Override
+    public void release(UUID orderId, String productId) {
+        // 解放はキャンセル時のみで頻度が低いため、まとめずにJPA方式で処理する
+        jpaReservationEngine.release(orderId, productId);
+    }
+    
+    private void runBatchLoop() {
+        InventoryReservationProperties.Batch batchProperties = properties.batch();
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingReservation> batch = new ArrayList<>(batchProperties.maxSize());
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchProperties.maxWaitMs());
+                while (batch.size() < batchProperties.maxSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingReservation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // 既に溜まっている要求は上限まで取り込む
+                queue.drainTo(batch, batchProperties.maxSize() - batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(stoppedException()));
+                break;
+            }
+            flush(batch);
+        }
+        List<PendingReservation> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result().completeExceptionally(stoppedException()));
+    }
+    
+    private static IllegalStateException stoppedException() {
+        return new IllegalStateException("Reservation batcher stopped");
+    }
+    
+    private void flush(List<PendingReservation> batch) {
+        try {
+            externalInventoryLookup.call();
+            List<ReservationResult> results = retryExecutor.execute("inventory.reserve-batch", () -> apply(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+            log.debug("引当バッチを処理しました: 要求数={}, 商品数={}", batch.size(),
+                    batch.stream().map(PendingReservation::productId).distinct().count());
+        } catch (RuntimeException e) {
+            log.error("引当バッチの処理に失敗しました: 要求数={}", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+    
+    /**
+     * 受付順に在庫を割り当て、商品ごとに合計数量を1回だけ反映する
+     * 再試行時は最新の在庫で割り当て直すため、結果はこのメソッド内で作り直す
+     * 引当結果が記録済みの注文（同じバッチ内の重複も含む）は、在庫を割り当てずに記録済みの結果を返す
+     */
+    private List<ReservationResult> apply(List<PendingReservation> batch) {
+        Map<String, InventoryItem> items = inventoryRepository.findByProductIdIn(
+                        batch.stream().map(PendingReservation::productId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+        
+        Map<UUID, InventoryReservation> recorded = reservationRepository.findAllById(
+                        batch.stream().map(PendingReservation::orderId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(InventoryReservation::getOrderId, Function.identity()));
+        
+        Map<String, Integer> remaining = new HashMap<>();
+        Map<String, Integer> accepted = new LinkedHashMap<>();
+        List<InventoryReservation> newRecords = new ArrayList<>();
+        List<ReservationResult> results = new ArrayList<>(batch.size());
+        for (PendingReservation pending : batch) {
+            InventoryReservation previous = recorded.get(pending.orderId());
+            if (previous != null) {
+                results.add(ReservationResult.from(previous));
+                continue;
+            }
+            ReservationResult result;
+            InventoryItem item = items.get(pending.productId());
+            if (item == null) {
+                log.warn("在庫に商品が見つかりませんでした: 商品ID={}", pending.productId());
+                result = ReservationResult.rejected(0);
+            } else {
+                int available = remaining.computeIfAbsent(pending.productId(), id -> item.getAvailableQuantity());
+                if (available >= pending.quantity()) {
+                    remaining.put(pending.productId(), available - pending.quantity());
+                    accepted.merge(pending.productId(), pending.quantity(), Integer::sum);
+                    result = ReservationResult.reserved(available - pending.quantity());
+                } else {
+                    result = ReservationResult.rejected(available);
+                }
+            }
+            InventoryReservation record = result.recordFor(pending.orderId(), pending.productId(), pending.quantity());
+            recorded.put(pending.orderId(), record);
+            newRecords.add(record);
+            results.add(result);
+        }
+        
+        accepted.forEach((productId, quantity) -> items.get(productId).reserve(quantity));
+        inventoryRepository.saveAll(accepted.keySet().stream().map(items::get).toList());
+        reservationRepository.saveAll(newRecords);
+        return results;
+    }
+    
+    private record PendingReservation(
+        UUID orderId,
+        String productId,
+        int quantity,
+        CompletableFuture<ReservationResult> result
+    ) {}
+}
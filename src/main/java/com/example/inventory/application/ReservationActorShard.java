@@ -0,0 +1,148 @@
+package com.example.inventory.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 在庫引当アクターの1シャード
+ * メールボックス（上限付きのキュー）を1本のVirtual Threadだけが取り出して処理するため、
+ * このシャードに割り当てられた商品の引当・解放はロックなしで受付順に直列化される
+ */
+@Slf4j
+class ReservationActorShard {
+    
+    private final int index;
+    private final BlockingQueue<Message> mailbox;
+    private final int maxBatchSize;
+    private final Consumer<List<Message>> handler;
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private final Counter processed;
+    private final Counter rejected;
+    private final Timer mailboxWait;
+    private volatile boolean stopped;
+    private Thread thread;
+    
+    ReservationActorShard(int index, InventoryReservationProperties.Actor properties,
+                          Consumer<List<Message>> handler, MeterRegistry meterRegistry) {
+        this.index = index;
+        this.mailbox = new ArrayBlockingQueue<>(properties.mailboxCapacity());
+        this.maxBatchSize = properties.maxBatchSize();
+        this.handler = handler;
+        
+        String shard = String.valueOf(index);
+        Gauge.builder("app.inventory.actor.mailbox-depth", mailbox, BlockingQueue::size)
+                .tag("shard", shard)
+                .register(meterRegistry);
+        this.processed = Counter.builder("app.inventory.actor.processed")
+                .tag("shard", shard)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.inventory.actor.rejected")
+                .tag("shard", shard)
+                .register(meterRegistry);
+        this.mailboxWait = Timer.builder("app.inventory.actor.mailbox-wait")
+                .tag("shard", shard)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    void start() {
+        thread = Thread.ofVirtual().name("inventory-actor-" + index).start(this::runLoop);
+    }
+    
+    /**
+     * 以降の投函を拒否し、アクターのスレッドに割り込む
+     * メールボックスに残ったメッセージは、スレッドの終了時に失敗として完了する
+     */
+    void stop() {
+        stopped = true;
+        thread.interrupt();
+    }
+    
+    /**
+     * メールボックスへ投函する。満杯の場合はfalseを返す（呼び出し元で拒否する）
+     *
+     * @throws IllegalStateException 停止後に投函した場合
+     */
+    boolean tell(Message message) {
+        if (stopped) {
+            throw stoppedException();
+        }
+        if (!mailbox.offer(message)) {
+            rejected.increment();
+            return false;
+        }
+        // 停止と同時に投函した場合、終了時の取り出しに間に合わなかったメッセージは誰にも処理されない
+        if (stopped && mailbox.remove(message)) {
+            throw stoppedException();
+        }
+        maxDepth.accumulateAndGet(mailbox.size(), Math::max);
+        return true;
+    }
+    
+    ActorReservationEngine.ShardSnapshot snapshot() {
+        return new ActorReservationEngine.ShardSnapshot(index, mailbox.size(), maxDepth.get(), (long) processed.count(), (long) rejected.count(),
+                mailboxWait.mean(TimeUnit.MILLISECONDS));
+    }
+    
+    private void runLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Message> batch = new ArrayList<>();
+            try {
+                batch.add(mailbox.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            // 処理中に溜まったメッセージはまとめて1トランザクションで処理する（待ち合わせはしない）
+            mailbox.drainTo(batch, maxBatchSize - 1);
+            long now = System.nanoTime();
+            batch.forEach(message -> mailboxWait.record(now - message.enqueuedNanos(), TimeUnit.NANOSECONDS));
+            try {
+                handler.accept(batch);
+            } catch (RuntimeException e) {
+                // 想定外の失敗でアクターのスレッドが終了すると、以降の要求がすべて応答を待ち続けるため、処理を続ける
+                log.error("引当アクターで想定外のエラーが発生しました: シャード={}, 要求数={}", index, batch.size(), e);
+                batch.forEach(message -> message.result().completeExceptionally(e));
+            }
+            processed.increment(batch.size());
+        }
+        List<Message> remaining = new ArrayList<>();
+        mailbox.drainTo(remaining);
+        remaining.forEach(message -> message.result().completeExceptionally(stoppedException()));
+    }
+    
+    private IllegalStateException stoppedException() {
+        return new IllegalStateException("Reservation actor stopped: shard " + index);
+    }
+    
+    enum Kind {
+        RESERVE, RELEASE
+    }
+    
+    /**
+     * @param orderId 引当・解放を要求した注文
+     * @param quantity 引当の数量（解放では記録された数量を使うため0）
+     * @param result 引当の結果（解放の場合はnullで完了する）
+     */
+    record Message(
+        Kind kind,
+        UUID orderId,
+        String productId,
+        int quantity,
+        long enqueuedNanos,
+        CompletableFuture<ReservationResult> result
+    ) {}
+}
@@ -0,0 +1,15 @@
+package com.example.inventory.application;
+
+/**
+ * 在庫引当の実行方式
+ */
+public enum ReservationMode {
+    /** findByProductId → reserve → save をJPAで実行する従来方式 */
+    JPA,
+    /** 商品ごとのCASカウンタで引当し、inventory_itemsへは非同期に書き戻す方式 */
+    LEDGER,
+    /** 一定件数・一定時間ごとに引当要求をまとめ、商品ごとに1回の読み込み・更新で処理する方式 */
+    MICRO_BATCH,
+    /** 商品IDをハッシュしたシャードごとに1本のVirtual Threadが要求を順に処理する方式（同じ商品の引当はロックなしで直列化される） */
+    ACTOR
+}
@@ -0,0 +1,42 @@
+package com.example.inventory.application;
+
+import com.example.inventory.domain.InventoryReservation;
+
+import java.util.UUID;
+
+public record ReservationResult(
+    boolean reserved,
+    int availableQuantity
+) {
+    public static ReservationResult reserved(int availableQuantity) {
+        return new ReservationResult(true, availableQuantity);
+    }
+    
+    public static ReservationResult rejected(int availableQuantity) {
+        return new ReservationResult(false, availableQuantity);
+    }
+    
+    public static ReservationResult from(InventoryReservation reservation) {
+        return new ReservationResult(reservation.getReserved(), reservation.getAvailableQuantity());
+    }
+    
+    /**
+     * 引当できなかった理由（InventoryReservationFailedEventのreason）
+     */
+    public String failureReason(int requestedQuantity) {
+        return "在庫不足. 利用可能: " + availableQuantity + ", 要求: " + requestedQuantity;
+    }
+    
+    /**
+     * 注文ごとの引当結果として記録する形に変換する
+     */
+    public InventoryReservation recordFor(UUID orderId, String productId, int quantity) {
+        return InventoryReservation.builder()
+                .orderId(orderId)
+                .productId(productId)
+                .quantity(quantity)
+                .reserved(reserved)
+                .availableQuantity(availableQuantity)
+                .build();
+    }
+}
@@ -29,6 +29,9 @@ public class InventoryItem {
     @Column(nullable = false)
     private Integer reservedQuantity;
     
+    @Version
+    private Long version;
+    
     // ドメインロジック
     public boolean hasEnoughStock(Integer requestedQuantity) {
         return availableQuantity >= requestedQuantity;
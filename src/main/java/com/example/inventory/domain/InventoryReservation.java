@@ -0,0 +1,81 @@
+package com.example.inventory.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 注文ごとの引当結果
+ * 在庫の更新と同じトランザクションで記録し、同じ注文の引当要求が再送された場合は在庫を更新せずにこの結果を返す
+ * 解放したときはreleasedAtを記録し、解放要求が再送されても在庫を二重に戻さない
+ */
+@Entity
+@Table(name = "inventory_reservations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservation implements Persistable<UUID> {
+    
+    @Id
+    private UUID orderId;
+    
+    @Column(nullable = false)
+    private String productId;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(nullable = false)
+    private Boolean reserved;
+    
+    @Column(nullable = false)
+    private Integer availableQuantity;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime releasedAt;
+    
+    // IDは注文IDを使うため、保存時に既存行の確認（SELECT）をせずにINSERTするよう新規かどうかを自前で持つ
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+    
+    @Override
+    public UUID getId() {
+        return orderId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+    
+    /**
+     * 引当済みで、まだ解放していない場合だけ解放できる（引当できなかった注文は在庫を確保していない）
+     */
+    public boolean isReleasable() {
+        return Boolean.TRUE.equals(reserved) && releasedAt == null;
+    }
+    
+    public void markReleased() {
+        this.releasedAt = LocalDateTime.now();
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        newEntity = false;
+    }
+}
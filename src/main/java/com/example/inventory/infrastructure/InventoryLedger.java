@@ -0,0 +1,137 @@
+package com.example.inventory.infrastructure;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 商品IDごとの在庫数をメモリ上に保持する台帳
+ * 利用可能数と引当数を1つのlongに詰めてCASで更新するため、
+ * ロックを取らずに引当・解放を線形化できる
+ */
+@Component
+public class InventoryLedger {
+    
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    public Optional<Entry> find(String productId) {
+        return Optional.ofNullable(entries.get(productId));
+    }
+    
+    /**
+     * 台帳にない商品はloaderで初期値を読み込む
+     * loaderが空を返した場合は台帳に登録しない（後から作成された在庫を拾えるようにするため）
+     */
+    public Optional<Entry> load(String productId, Function<String, Optional<Snapshot>> loader) {
+        Entry entry = entries.get(productId);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        return loader.apply(productId)
+                .map(snapshot -> entries.computeIfAbsent(productId,
+                        id -> new Entry(id, snapshot.availableQuantity(), snapshot.reservedQuantity())));
+    }
+    
+    /**
+     * 前回の書き戻し以降に変更されたエントリのスナップショットを取り出す
+     */
+    public List<Snapshot> drainDirty() {
+        List<Snapshot> dirty = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.dirty.getAndSet(false)) {
+                dirty.add(entry.snapshot());
+            }
+        }
+        return dirty;
+    }
+    
+    /**
+     * 書き戻しに失敗したエントリを再度書き戻し対象にする
+     */
+    public void markDirty(String productId) {
+        Entry entry = entries.get(productId);
+        if (entry != null) {
+            entry.dirty.set(true);
+        }
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public record Snapshot(
+        String productId,
+        int availableQuantity,
+        int reservedQuantity
+    ) {}
+    
+    public static final class Entry {
+        
+        private final String productId;
+        // 上位32ビット: 利用可能数, 下位32ビット: 引当数
+        private final AtomicLong state;
+        private final AtomicBoolean dirty = new AtomicBoolean(false);
+        
+        private Entry(String productId, int availableQuantity, int reservedQuantity) {
+            this.productId = productId;
+            this.state = new AtomicLong(pack(availableQuantity, reservedQuantity));
+        }
+        
+        public boolean tryReserve(int quantity) {
+            while (true) {
+                long current = state.get();
+                int available = available(current);
+                int reserved = reserved(current);
+                if (available < quantity) {
+                    return false;
+                }
+                if (state.compareAndSet(current, pack(available - quantity, reserved + quantity))) {
+                    dirty.set(true);
+                    return true;
+                }
+            }
+        }
+        
+        public void release(int quantity) {
+            while (true) {
+                long current = state.get();
+                int available = available(current);
+                int reserved = reserved(current);
+                if (reserved < quantity) {
+                    throw new IllegalStateException("Cannot release more than reserved quantity");
+                }
+                if (state.compareAndSet(current, pack(available + quantity, reserved - quantity))) {
+                    dirty.set(true);
+                    return;
+                }
+            }
+        }
+        
+        public Snapshot snapshot() {
+            long current = state.get();
+            return new Snapshot(productId, available(current), reserved(current));
+        }
+        
+        private static long pack(int available, int reserved) {
+            return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+        }
+        
+        private static int available(long state) {
+            return (int) (state >>> 32);
+        }
+        
+        private static int reserved(long state) {
+            return (int) state;
+        }
+    }
+}
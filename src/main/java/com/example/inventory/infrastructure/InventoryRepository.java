@@ -2,12 +2,28 @@ package com.example.inventory.infrastructure;
 
 import com.example.inventory.domain.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<InventoryItem, UUID> {
     Optional<InventoryItem> findByProductId(String productId);
+    
+    List<InventoryItem> findByProductIdIn(Collection<String> productIds);
+    
+    @Modifying
+    @Transactional
+    @Query("update InventoryItem i set i.availableQuantity = :available, i.reservedQuantity = :reserved, "
+            + "i.version = i.version + 1 where i.productId = :productId")
+    int updateQuantities(@Param("productId") String productId,
+                         @Param("available") int available,
+                         @Param("reserved") int reserved);
 }
@@ -0,0 +1,11 @@
+package com.example.inventory.infrastructure;
+
+import com.example.inventory.domain.InventoryReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, UUID> {
+}
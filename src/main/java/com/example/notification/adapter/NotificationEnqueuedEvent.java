@@ -0,0 +1,11 @@
+package com.example.notification.adapter;
+
+import java.util.UUID;
+
+public record NotificationEnqueuedEvent(
+    UUID notificationId,
+    String recipientId,
+    String type,
+    UUID orderId
+) {
+}
@@ -1,83 +1,104 @@
 package com.example.notification.adapter;
 
-import com.example.notification.domain.Notification;
-import com.example.notification.infrastructure.NotificationRepository;
+import com.example.config.VirtualThreadConfig;
+import com.example.notification.application.NotificationDispatcher;
+import com.example.notification.application.NotificationService;
+import com.example.shared.saga.SagaLatencyTracker;
+import com.example.shared.saga.SagaOutcome;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.modulith.events.ApplicationModuleListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class NotificationEventListener {
     
     private static final Logger log = LoggerFactory.getLogger(NotificationEventListener.class);
-    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final SagaLatencyTracker sagaTracker;
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.NOTIFICATION_TASK_EXECUTOR)
     public void onOrderCreated(com.example.order.adapter.OrderCreatedEvent event) {
-        log.info("通知用のOrderCreatedEventを受信しました (スレッド: {})", Thread.currentThread());
+        long startNanos = sagaTracker.begin("notification.order-created", event.trace());
+        log.info("通知用のOrderCreatedEventを受信しました: 相関ID={} (スレッド: {})", 
+                event.trace().correlationId(), Thread.currentThread());
         
-        sendNotification(
+        enqueueNotification(
+                event.orderId(),
                 event.customerId(),
                 "ORDER_CREATED",
                 String.format("Order #%s has been created and is being processed.", event.orderId())
         );
+        sagaTracker.end("notification.order-created", startNanos);
     }
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.NOTIFICATION_TASK_EXECUTOR)
     public void onOrderConfirmed(com.example.order.adapter.OrderConfirmedEvent event) {
-        log.info("通知用のOrderConfirmedEventを受信しました (スレッド: {})", Thread.currentThread());
+        long startNanos = sagaTracker.begin("notification.order-confirmed", event.trace());
+        log.info("通知用のOrderConfirmedEventを受信しました: 相関ID={} (スレッド: {})", 
+                event.trace().correlationId(), Thread.currentThread());
         
-        sendNotification(
+        enqueueNotification(
+                event.orderId(),
                 event.customerId(),
                 "ORDER_CONFIRMED",
                 String.format("Order #%s has been confirmed. Preparing for shipment.", event.orderId())
         );
+        sagaTracker.end("notification.order-confirmed", startNanos);
     }
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.NOTIFICATION_TASK_EXECUTOR)
     public void onShipmentCreated(com.example.shipping.adapter.ShipmentCreatedEvent event) {
-        log.info("通知用のShipmentCreatedEventを受信しました (スレッド: {})", Thread.currentThread());
+        long startNanos = sagaTracker.begin("notification.shipment-created", event.trace());
+        log.info("通知用のShipmentCreatedEventを受信しました: 相関ID={} (スレッド: {})", 
+                event.trace().correlationId(), Thread.currentThread());
         
-        sendNotification(
+        enqueueNotification(
+                event.orderId(),
                 event.customerId(),
                 "SHIPMENT_CREATED",
                 String.format("Order #%s has been shipped! Tracking number: %s", 
                         event.orderId(), event.trackingNumber())
         );
+        sagaTracker.end("notification.shipment-created", startNanos);
+        sagaTracker.complete(event.trace(), SagaOutcome.COMPLETED);
     }
     
-    @Async
-    private void sendNotification(String recipientId, String type, String message) {
-        log.info("通知を送信中: 受信者ID={}, タイプ={} (スレッド: {})", 
-                recipientId, type, Thread.currentThread());
-        
-        // Simulate I/O operation (e.g., sending email, SMS, push notification)
-        simulateNotificationSending();
-        
-        Notification notification = new Notification();
-        notification.setRecipientId(recipientId);
-        notification.setType(type);
-        notification.setMessage(message);
-        notification.setStatus(Notification.NotificationStatus.PENDING);
-        
-        notification.markAsSent();
-        notificationRepository.save(notification);
-        log.info("通知を送信しました: 通知ID={}", notification.getId());
+    /**
+     * モジュール内のイベントのため登録簿には記録せず、発行元のトランザクションのコミット後にディスパッチャーを起こすだけにする
+     * （コミット前に起こすと、ディスパッチャーが登録前の通知を見つけられずにポーリング間隔まで待ってしまう）
+     * @TransactionalEventListenerはSpring Modulithが登録簿に記録するため使わない
+     */
+    @EventListener
+    public void onNotificationEnqueued(NotificationEnqueuedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notificationDispatcher.wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationDispatcher.wakeUp();
+            }
+        });
     }
     
-    private void simulateNotificationSending() {
-        try {
-            // Simulate external notification service call (email/SMS API)
-            Thread.sleep(200);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    /**
+     * 送信待ちとして登録するだけで、外部サービスへの送信はNotificationDispatcherがまとめて行う
+     */
+    private void enqueueNotification(UUID orderId, String recipientId, String type, String message) {
+        notificationService.enqueue(recipientId, type, message, orderId);
     }
 }
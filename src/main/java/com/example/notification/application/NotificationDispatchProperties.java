@@ -0,0 +1,15 @@
+package com.example.notification.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param batchSize 1回の送信でまとめる通知の最大件数
+ * @param pollIntervalMs 送信待ちの通知がないときに次に確認するまでの間隔（登録の通知を受けた場合は待たずに確認する）
+ */
+@ConfigurationProperties(prefix = "app.notification.dispatch")
+public record NotificationDispatchProperties(
+    @DefaultValue("200") int batchSize,
+    @DefaultValue("500") long pollIntervalMs
+) {
+}
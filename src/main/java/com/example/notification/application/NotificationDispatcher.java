@@ -0,0 +1,157 @@
+package com.example.notification.application;
+
+import com.example.notification.domain.Notification;
+import com.example.notification.infrastructure.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 送信待ち（PENDING）の通知をまとめて送信するディスパッチャー
+ * 通知をbatchSize件ずつ登録順に取り出してNotificationSenderに渡し、
+ * 送信結果はSENT・FAILEDそれぞれ1文のUPDATEで反映する。
+ * 送信中はトランザクションを開始しないため、外部サービスの待ち時間でコネクションを占有しない。
+ * 取り出しから反映までを1つのVirtual Threadで順に行うため、同じ通知が二重に送信されることはない。
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+    
+    private final NotificationRepository notificationRepository;
+    private final NotificationSender notificationSender;
+    private final NotificationDispatchProperties properties;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer delayTimer;
+    
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+    
+    private final Semaphore wakeUp = new Semaphore(0);
+    private Thread dispatcher;
+    
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  NotificationSender notificationSender,
+                                  NotificationDispatchProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.notificationSender = notificationSender;
+        this.properties = properties;
+        this.sentCounter = Counter.builder("app.notification.dispatched")
+                .tag("status", "sent")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("app.notification.dispatched")
+                .tag("status", "failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("app.notification.dispatch.batch")
+                .description("1バッチの送信にかかった時間")
+                .register(meterRegistry);
+        this.delayTimer = Timer.builder("app.notification.dispatch.delay")
+                .description("通知の登録から送信結果の反映までの時間")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() {
+        dispatcher = Thread.ofVirtual().name("notification-dispatcher").start(this::runDispatchLoop);
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        dispatcher.interrupt();
+        // 送信結果の反映中にEntityManagerFactoryが閉じられないよう、ループの終了を待つ
+        dispatcher.join(SHUTDOWN_TIMEOUT.toMillis());
+    }
+    
+    /**
+     * 送信待ちの通知が登録されたことを知らせ、待機中のディスパッチャーを起こす
+     */
+    public void wakeUp() {
+        wakeUp.release();
+    }
+    
+    private void runDispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            int dispatched;
+            try {
+                dispatched = dispatchBatch();
+            } catch (RuntimeException e) {
+                log.error("通知の送信処理に失敗しました", e);
+                dispatched = 0;
+            }
+            // 満杯のバッチを送った直後は残りがある可能性が高いため、待たずに次を取り出す
+            if (dispatched < properties.batchSize()) {
+                try {
+                    wakeUp.tryAcquire(properties.pollIntervalMs(), TimeUnit.MILLISECONDS);
+                    // 送信中に溜まった通知は次のバッチでまとめて取り出すため、通知の回数は問わない
+                    wakeUp.drainPermits();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return 処理した通知の件数
+     */
+    int dispatchBatch() {
+        List<NotificationDto> batch = notificationRepository.findByStatusOrderByCreatedAt(
+                        Notification.NotificationStatus.PENDING, PageRequest.ofSize(properties.batchSize()))
+                .stream()
+                .map(NotificationDto::from)
+                .toList();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        Set<UUID> failed;
+        long startNanos = System.nanoTime();
+        try {
+            failed = notificationSender.send(batch);
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // シャットダウン中は送信待ちのまま残し、次回の起動後に送信する
+                log.info("シャットダウンのため通知の送信を中断しました: 件数={}", batch.size());
+                return 0;
+            }
+            log.error("通知の一括送信に失敗しました: 件数={}", batch.size(), e);
+            failed = Set.copyOf(batch.stream().map(NotificationDto::id).toList());
+        }
+        batchTimer.record(Duration.ofNanos(System.nanoTime() - startNanos));
+        
+        Set<UUID> failedIds = failed;
+        List<UUID> sentIds = batch.stream()
+                .map(NotificationDto::id)
+                .filter(id -> !failedIds.contains(id))
+                .toList();
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (!sentIds.isEmpty()) {
+            notificationRepository.updateStatus(sentIds, Notification.NotificationStatus.SENT, now);
+        }
+        if (!failedIds.isEmpty()) {
+            notificationRepository.updateStatus(failedIds, Notification.NotificationStatus.FAILED, null);
+        }
+        
+        sentCounter.increment(sentIds.size());
+        failedCounter.increment(failedIds.size());
+        batch.forEach(notification -> delayTimer.record(Duration.between(notification.createdAt(), now)));
+        log.debug("通知を一括送信しました: 送信={}, 失敗={}", sentIds.size(), failedIds.size());
+        return batch.size();
+    }
+}
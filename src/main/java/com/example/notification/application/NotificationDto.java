@@ -11,7 +11,8 @@ public record NotificationDto(
     String type,
     String message,
     Notification.NotificationStatus status,
-    LocalDateTime sentAt
+    LocalDateTime sentAt,
+    LocalDateTime createdAt
 ) {
     public static NotificationDto from(Notification notification) {
         return new NotificationDto(
@@ -20,7 +21,8 @@ public record NotificationDto(
                 notification.getType(),
                 notification.getMessage(),
                 notification.getStatus(),
-                notification.getSentAt()
+                notification.getSentAt(),
+                notification.getCreatedAt()
         );
     }
 }
@@ -0,0 +1,12 @@
+package com.example.notification.application;
+
+import java.util.List;
+
+/**
+ * 通知履歴の1ページ分（次ページがない場合nextCursorはnull）
+ */
+public record NotificationPage(
+    List<NotificationDto> notifications,
+    NotificationCursor nextCursor
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.notification.application;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 通知の送信先（メール・SMS・プッシュ通知など）
+ * 1回の呼び出しでまとめて送信する
+ */
+public interface NotificationSender {
+    
+    /**
+     * @return 送信に失敗した通知のID
+     */
+    Set<UUID> send(List<NotificationDto> notifications);
+}
@@ -1,23 +1,104 @@
 package com.example.notification.application;
 
+import com.example.notification.domain.Notification;
 import com.example.notification.infrastructure.NotificationRepository;
+import com.example.shared.events.AfterCommitEventPublisher;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
     
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    /** ストリーミング時に永続化コンテキストを切り離す間隔 */
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    
     private final NotificationRepository notificationRepository;
+    private final EntityManager entityManager;
+    private final AfterCommitEventPublisher afterCommitEventPublisher;
+    
+    /**
+     * 通知を送信待ち（PENDING）として登録する
+     * 実際の送信はNotificationDispatcherがまとめて行う。
+     * NotificationEnqueuedEventを発行し、コミット後にディスパッチャーをポーリング間隔を待たずに起こす
+     * orderIdは通知のきっかけになった注文（注文ビューの通知数の集計に使う）
+     */
+    @Transactional
+    public NotificationDto enqueue(String recipientId, String type, String message, UUID orderId) {
+        Notification notification = new Notification();
+        notification.setRecipientId(recipientId);
+        notification.setType(type);
+        notification.setMessage(message);
+        notification.setStatus(Notification.NotificationStatus.PENDING);
+        notification.setOrderId(orderId);
+        
+        notificationRepository.save(notification);
+        afterCommitEventPublisher.publish(new com.example.notification.adapter.NotificationEnqueuedEvent(
+                notification.getId(), recipientId, type, orderId));
+        log.info("通知を送信待ちに登録しました: 通知ID={}, 受信者ID={}, タイプ={}", 
+                notification.getId(), recipientId, type);
+        return NotificationDto.from(notification);
+    }
+    
+    /**
+     * 受信者の通知履歴（送信待ち・送信失敗を含む）を登録日時の新しい順に1ページ分取得する
+     * cursorがnullの場合は先頭ページ
+     */
+    @Transactional(readOnly = true)
+    public NotificationPage getNotificationsByRecipient(String recipientId, NotificationCursor cursor, int size) {
+        Pageable pageable = PageRequest.ofSize(Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        List<Notification> notifications = cursor == null
+                ? notificationRepository.findByRecipientIdOrderByCreatedAtDescIdDesc(recipientId, pageable)
+                : notificationRepository.findPageAfter(recipientId, cursor.createdAt(), cursor.id(), pageable);
+        
+        NotificationCursor nextCursor = null;
+        if (notifications.size() == pageable.getPageSize()) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = new NotificationCursor(last.getCreatedAt(), last.getId());
+        }
+        return new NotificationPage(
+                notifications.stream()
+                        .map(NotificationDto::from)
+                        .toList(),
+                nextCursor);
+    }
+    
+    /**
+     * 注文をきっかけに登録された通知の件数
+     */
+    @Transactional(readOnly = true)
+    public long countByOrder(UUID orderId) {
+        return notificationRepository.countByOrderId(orderId);
+    }
     
-    public List<NotificationDto> getNotificationsByRecipient(String recipientId) {
-        return notificationRepository.findAll().stream()
-                .filter(n -> n.getRecipientId().equals(recipientId))
-                .map(NotificationDto::from)
-                .toList();
+    /**
+     * 受信者の通知履歴を全件、1件ずつconsumerに渡す
+     * DBカーソルで読み出し一定件数ごとに永続化コンテキストを切り離すため、件数によらずメモリ使用量は一定
+     */
+    @Transactional(readOnly = true)
+    public void streamNotificationsByRecipient(String recipientId, Consumer<NotificationDto> consumer) {
+        try (Stream<Notification> notifications = notificationRepository.streamByRecipientId(recipientId)) {
+            int[] count = {0};
+            notifications.forEach(notification -> {
+                consumer.accept(NotificationDto.from(notification));
+                if (++count[0] % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
+            log.debug("通知履歴をストリーミングしました: 受信者ID={}, 件数={}", recipientId, count[0]);
+        }
     }
 }
@@ -10,7 +10,15 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    // 受信者ごとの通知履歴を登録日時の新しい順にキーセットページングするための複合インデックス
+    // （送信日時は送信待ち・送信失敗の通知でnullのため、常に値のある登録日時で並べる）
+    @Index(name = "idx_notifications_recipient_created_at", columnList = "recipient_id, created_at, id"),
+    // 送信待ち（PENDING）の通知を登録順に取り出すためのインデックス
+    @Index(name = "idx_notifications_status_created_at", columnList = "status, created_at"),
+    // 注文ごとの通知数を数えるためのインデックス（注文ビューをイベントから組み立て直せない場合に使う）
+    @Index(name = "idx_notifications_order_id", columnList = "order_id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
@@ -33,6 +41,12 @@ public class Notification {
     
     private LocalDateTime sentAt;
     
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // 通知のきっかけになった注文（注文に関係しない通知はnull）
+    private UUID orderId;
+    
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -82,8 +96,27 @@ public class Notification {
         this.sentAt = sentAt;
     }
     
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public UUID getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+    
     @PrePersist
     protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         if (status == null) {
             status = NotificationStatus.PENDING;
         }
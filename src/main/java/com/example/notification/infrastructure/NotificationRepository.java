@@ -1,11 +1,80 @@
 package com.example.notification.infrastructure;
 
 import com.example.notification.domain.Notification;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+    
+    /**
+     * 受信者の通知（送信待ち・送信失敗を含む）の先頭ページ（登録日時の新しい順、同時刻はIDの降順）
+     * 戻り値をListにしているため件数取得のクエリは発行されない
+     */
+    List<Notification> findByRecipientIdOrderByCreatedAtDescIdDesc(String recipientId, Pageable pageable);
+    
+    /**
+     * キーセットページング: 前ページの最後の（createdAt, id）より古い通知を返す
+     * idx_notifications_recipient_created_atを範囲検索するため、OFFSETと違いページ位置によらず一定コスト
+     */
+    @Query("""
+            select n from Notification n
+            where n.recipientId = :recipientId
+              and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))
+            order by n.createdAt desc, n.id desc
+            """)
+    List<Notification> findPageAfter(@Param("recipientId") String recipientId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     Pageable pageable);
+    
+    /**
+     * 受信者の通知（送信待ち・送信失敗を含む）をカーソルで順に読み出す（呼び出し側のトランザクション内で使用すること）
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select n from Notification n
+            where n.recipientId = :recipientId
+            order by n.createdAt desc, n.id desc
+            """)
+    Stream<Notification> streamByRecipientId(@Param("recipientId") String recipientId);
+    
+    /**
+     * 注文をきっかけに登録された通知の件数（idx_notifications_order_idを使用）
+     */
+    long countByOrderId(UUID orderId);
+    
+    /**
+     * 送信待ちの通知を登録順に取得する（idx_notifications_status_created_atを使用）
+     */
+    List<Notification> findByStatusOrderByCreatedAt(Notification.NotificationStatus status, Pageable pageable);
+    
+    /**
+     * 送信結果をまとめて反映する（1件ずつのUPDATEではなく1文で更新）
+     */
+    @Modifying
+    @Transactional
+    @Query("update Notification n set n.status = :status, n.sentAt = :sentAt where n.id in :ids")
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("status") Notification.NotificationStatus status,
+                     @Param("sentAt") LocalDateTime sentAt);
 }
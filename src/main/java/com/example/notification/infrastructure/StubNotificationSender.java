@@ -0,0 +1,44 @@
+package com.example.notification.infrastructure;
+
+import com.example.notification.application.NotificationDto;
+import com.example.notification.application.NotificationSender;
+import com.example.shared.stub.StubServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * メール・SMS送信APIの代わりに、一括送信1回ごとにスタブの外部サービスを呼び出す送信先
+ * 呼び出しの応答時間とエラー率（一括送信全体の失敗）はapp.stub-service.services.notificationで設定する
+ * 本物の送信先を使う場合はapp.notification.sender.typeを変更し、NotificationSenderの実装を登録する
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.notification.sender", name = "type", havingValue = "stub", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class StubNotificationSender implements NotificationSender {
+    
+    private static final String NOTIFICATION_API = "notification";
+    
+    private final StubNotificationSenderProperties properties;
+    private final StubServiceClient stubServiceClient;
+    
+    @Override
+    public Set<UUID> send(List<NotificationDto> notifications) {
+        stubServiceClient.call(NOTIFICATION_API);
+        
+        Set<UUID> failed = notifications.stream()
+                .filter(notification -> ThreadLocalRandom.current().nextDouble() < properties.failureRate())
+                .map(NotificationDto::id)
+                .collect(Collectors.toSet());
+        log.debug("通知を送信しました（スタブ）: 件数={}, 失敗={}", notifications.size(), failed.size());
+        return failed;
+    }
+}
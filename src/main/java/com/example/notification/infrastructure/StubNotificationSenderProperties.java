@@ -0,0 +1,13 @@
+package com.example.notification.infrastructure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param failureRate 通知ごとに送信失敗とする確率（0.0〜1.0）
+ */
+@ConfigurationProperties(prefix = "app.notification.sender.stub")
+public record StubNotificationSenderProperties(
+    @DefaultValue("0.0") double failureRate
+) {
+}
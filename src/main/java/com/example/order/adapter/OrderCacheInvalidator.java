@@ -0,0 +1,28 @@
+package com.example.order.adapter;
+
+import com.example.config.CacheConfig;
+import com.example.shared.cache.CacheEvictor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 注文の読み取りキャッシュを、注文の状態を変えたイベントの発行元のコミット後に無効化する
+ * イベント登録簿を経由しないよう@ApplicationModuleListenerではなく同期の@EventListenerで受け取る
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderCacheInvalidator {
+    
+    private final CacheEvictor cacheEvictor;
+    
+    @EventListener
+    public void onOrderConfirmed(OrderConfirmedEvent event) {
+        cacheEvictor.evictAfterCommit(CacheConfig.ORDER_CACHE, event.orderId());
+    }
+    
+    @EventListener
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        cacheEvictor.evictAfterCommit(CacheConfig.ORDER_CACHE, event.orderId());
+    }
+}
@@ -5,6 +5,7 @@ import java.util.UUID;
 public record OrderCancelledEvent(
     UUID orderId,
     String productId,
-    Integer quantity
+    Integer quantity,
+    com.example.shared.saga.SagaTrace trace
 ) {
 }
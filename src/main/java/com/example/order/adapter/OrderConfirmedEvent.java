@@ -6,6 +6,7 @@ public record OrderConfirmedEvent(
     UUID orderId,
     String customerId,
     String productId,
-    Integer quantity
+    Integer quantity,
+    com.example.shared.saga.SagaTrace trace
 ) {
 }
@@ -7,6 +7,7 @@ public record OrderCreatedEvent(
     String customerId,
     String productId,
     Integer quantity,
-    java.math.BigDecimal totalAmount
+    java.math.BigDecimal totalAmount,
+    com.example.shared.saga.SagaTrace trace
 ) {
 }
@@ -1,6 +1,8 @@
 package com.example.order.adapter;
 
+import com.example.config.VirtualThreadConfig;
 import com.example.order.application.OrderService;
+import com.example.shared.saga.SagaLatencyTracker;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,22 +16,27 @@ public class OrderEventListener {
     
     private static final Logger log = LoggerFactory.getLogger(OrderEventListener.class);
     private final OrderService orderService;
+    private final SagaLatencyTracker sagaTracker;
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.ORDER_TASK_EXECUTOR)
     public void onInventoryReserved(com.example.inventory.adapter.InventoryReservedEvent event) {
-        log.info("InventoryReservedEventを受信しました: 注文ID={} (スレッド: {})", 
-                event.orderId(), Thread.currentThread());
+        long startNanos = sagaTracker.begin("order.confirm", event.trace());
+        log.info("InventoryReservedEventを受信しました: 注文ID={}, 相関ID={} (スレッド: {})", 
+                event.orderId(), event.trace().correlationId(), Thread.currentThread());
         
-        orderService.confirmOrder(event.orderId());
+        orderService.confirmOrder(event.orderId(), event.trace());
+        sagaTracker.end("order.confirm", startNanos);
     }
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.ORDER_TASK_EXECUTOR)
     public void onInventoryReservationFailed(com.example.inventory.adapter.InventoryReservationFailedEvent event) {
-        log.info("InventoryReservationFailedEventを受信しました: 注文ID={} (スレッド: {})", 
-                event.orderId(), Thread.currentThread());
+        long startNanos = sagaTracker.begin("order.cancel", event.trace());
+        log.info("InventoryReservationFailedEventを受信しました: 注文ID={}, 相関ID={} (スレッド: {})", 
+                event.orderId(), event.trace().correlationId(), Thread.currentThread());
         
-        orderService.cancelOrder(event.orderId());
+        orderService.cancelOrder(event.orderId(), event.trace());
+        sagaTracker.end("order.cancel", startNanos);
     }
 }
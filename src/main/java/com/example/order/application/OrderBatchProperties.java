@@ -0,0 +1,18 @@
+package com.example.order.application;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * @param flushSize 永続化コンテキストをflush/clearする件数（hibernate.jdbc.batch_sizeの倍数にする）
+ * @param maxRequestSize 一括作成で1リクエストに含められる注文の上限（1トランザクションで保持する件数の上限になる）
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.order.batch")
+public record OrderBatchProperties(
+    @DefaultValue("500") @Positive int flushSize,
+    @DefaultValue("10000") @Positive int maxRequestSize
+) {
+}
@@ -1,16 +1,24 @@
 package com.example.order.application;
 
+import com.example.config.CacheConfig;
 import com.example.order.domain.Order;
 import com.example.order.infrastructure.OrderRepository;
+import com.example.shared.events.AfterCommitEventPublisher;
+import com.example.shared.retry.OptimisticRetryExecutor;
+import com.example.shared.saga.SagaTrace;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -21,12 +29,65 @@ public class OrderService {
     
     private final OrderRepository orderRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final AfterCommitEventPublisher afterCommitEventPublisher;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final EntityManager entityManager;
+    private final OrderBatchProperties batchProperties;
     
     @Transactional
     public OrderDto createOrder(CreateOrderCommand command) {
         log.info("注文を作成中: 顧客ID={}, 商品ID={}, 数量={}", 
                 command.customerId(), command.productId(), command.quantity());
         
+        Order order = orderRepository.save(newOrder(command));
+        
+        // app.events.publication.modeに従って発行する（AFTER_COMMITではイベント登録簿への書き込みを応答時間に含めない）
+        afterCommitEventPublisher.publish(orderCreatedEvent(order));
+        
+        log.info("注文を作成しました: 注文ID={}", order.getId());
+        return OrderDto.from(order);
+    }
+    
+    /**
+     * 注文をまとめて1トランザクションで作成する
+     * INSERTはhibernate.jdbc.batch_sizeごとにJDBCバッチで送信し、
+     * OrderCreatedEventは全件の保存後にまとめて発行する
+     *
+     * @throws IllegalArgumentException 注文が0件、またはapp.order.batch.max-request-sizeを超える場合
+     */
+    @Transactional
+    public List<OrderDto> createOrders(List<CreateOrderCommand> commands) {
+        if (commands.isEmpty() || commands.size() > batchProperties.maxRequestSize()) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + batchProperties.maxRequestSize()
+                    + ": " + commands.size());
+        }
+        log.info("注文を一括作成中: 件数={}", commands.size());
+        
+        List<Order> orders = new ArrayList<>(commands.size());
+        for (CreateOrderCommand command : commands) {
+            Order order = newOrder(command);
+            entityManager.persist(order);
+            orders.add(order);
+            
+            // 永続化コンテキストが肥大化しないよう一定件数ごとに送信して切り離す
+            if (orders.size() % batchProperties.flushSize() == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        
+        afterCommitEventPublisher.publishAll(orders.stream()
+                .map(this::orderCreatedEvent)
+                .toList());
+        
+        log.info("注文を一括作成しました: 件数={}", orders.size());
+        return orders.stream()
+                .map(OrderDto::from)
+                .toList();
+    }
+    
+    private Order newOrder(CreateOrderCommand command) {
         BigDecimal totalAmount = command.unitPrice().multiply(BigDecimal.valueOf(command.quantity()));
         
         Order order = new Order();
@@ -35,38 +96,42 @@ public class OrderService {
         order.setQuantity(command.quantity());
         order.setTotalAmount(totalAmount);
         order.setStatus(Order.OrderStatus.PENDING);
-        
-        order = orderRepository.save(order);
-        
-        // Publish event asynchronously using virtual thread
-        publishOrderCreatedEvent(order);
-        
-        log.info("注文を作成しました: 注文ID={}", order.getId());
-        return OrderDto.from(order);
+        return order;
     }
     
-    @Async
-    private void publishOrderCreatedEvent(Order order) {
-        log.info("OrderCreatedEventを発行中: 注文ID={} (スレッド: {})", 
-                order.getId(), Thread.currentThread());
-        
+    private com.example.order.adapter.OrderCreatedEvent orderCreatedEvent(Order order) {
         com.example.order.adapter.OrderCreatedEvent event = 
                 new com.example.order.adapter.OrderCreatedEvent(
                         order.getId(),
                         order.getCustomerId(),
                         order.getProductId(),
                         order.getQuantity(),
-                        order.getTotalAmount()
+                        order.getTotalAmount(),
+                        SagaTrace.start()
                 );
-        
-        eventPublisher.publishEvent(event);
+        log.info("OrderCreatedEventを発行中: 注文ID={}, 相関ID={} (スレッド: {})", 
+                order.getId(), event.trace().correlationId(), Thread.currentThread());
+        return event;
     }
     
-    @Transactional
-    public void confirmOrder(UUID orderId) {
+    /**
+     * 楽観ロックの競合時は新しいトランザクションで再試行する
+     * 確定済み（配送済みを含む）の注文は状態を変えず、イベントも発行しない（イベントの再送で呼ばれた場合）
+     */
+    public void confirmOrder(UUID orderId, SagaTrace trace) {
+        retryExecutor.executeWithoutResult("order.confirm", () -> doConfirmOrder(orderId, trace));
+    }
+    
+    private void doConfirmOrder(UUID orderId, SagaTrace trace) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
         
+        if (order.isConfirmed() || order.getStatus() == Order.OrderStatus.SHIPPED
+                || order.getStatus() == Order.OrderStatus.DELIVERED) {
+            log.info("注文は確定済みです: 注文ID={}, ステータス={}", orderId, order.getStatus());
+            return;
+        }
+        
         order.confirm();
         orderRepository.save(order);
         
@@ -75,18 +140,31 @@ public class OrderService {
                         order.getId(),
                         order.getCustomerId(),
                         order.getProductId(),
-                        order.getQuantity()
+                        order.getQuantity(),
+                        trace.next()
                 );
         
         eventPublisher.publishEvent(confirmedEvent);
         log.info("注文を確定しました: 注文ID={}", order.getId());
     }
     
-    @Transactional
-    public void cancelOrder(UUID orderId) {
+    /**
+     * 楽観ロックの競合時は新しいトランザクションで再試行する
+     * キャンセル済みの注文は状態を変えず、OrderCancelledEventも発行しない（イベントの再送で呼ばれた場合）
+     */
+    public void cancelOrder(UUID orderId, SagaTrace trace) {
+        retryExecutor.executeWithoutResult("order.cancel", () -> doCancelOrder(orderId, trace));
+    }
+    
+    private void doCancelOrder(UUID orderId, SagaTrace trace) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
         
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            log.info("注文はキャンセル済みです: 注文ID={}", orderId);
+            return;
+        }
+        
         order.cancel();
         orderRepository.save(order);
         
@@ -94,13 +172,26 @@ public class OrderService {
                 new com.example.order.adapter.OrderCancelledEvent(
                         order.getId(),
                         order.getProductId(),
-                        order.getQuantity()
+                        order.getQuantity(),
+                        trace.next()
                 );
         
         eventPublisher.publishEvent(cancelledEvent);
         log.info("注文をキャンセルしました: 注文ID={}", order.getId());
     }
     
+    /**
+     * 注文が存在しない場合は空を返す（キャッシュは使わない）
+     */
+    public Optional<OrderDto> findOrder(UUID orderId) {
+        return orderRepository.findById(orderId)
+                .map(OrderDto::from);
+    }
+    
+    /**
+     * 状態の変化（OrderConfirmedEvent・OrderCancelledEvent）のたびにOrderCacheInvalidatorが無効化する
+     */
+    @Cacheable(CacheConfig.ORDER_CACHE)
     public OrderDto getOrder(UUID orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
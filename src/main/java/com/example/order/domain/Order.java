@@ -37,6 +37,9 @@ public class Order {
     
     private LocalDateTime createdAt;
     
+    @Version
+    private Long version;
+    
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -94,6 +97,10 @@ public class Order {
         this.createdAt = createdAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,66 @@
+package com.example.orderview.adapter;
+
+import com.example.inventory.application.InventoryReservationService;
+import com.example.notification.application.NotificationService;
+import com.example.order.application.OrderService;
+import com.example.orderview.application.OrderView;
+import com.example.orderview.application.OrderViewLoader;
+import com.example.shipping.application.ShipmentDto;
+import com.example.shipping.application.ShippingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 注文・在庫引当・配送・通知の各モジュールに問い合わせて注文ビューを組み立てる
+ * 再起動後や上限を超えて追い出された注文の参照時にだけ使う（通常の参照はイベントから組み立てたビューを返す）
+ */
+@Component
+@RequiredArgsConstructor
+public class ModuleOrderViewLoader implements OrderViewLoader {
+    
+    private final OrderService orderService;
+    private final InventoryReservationService reservationService;
+    private final ShippingService shippingService;
+    private final NotificationService notificationService;
+    
+    @Override
+    public Optional<OrderView> load(UUID orderId) {
+        return orderService.findOrder(orderId).map(order -> {
+            OrderView.OrderStatus status = switch (order.status()) {
+                case PENDING -> OrderView.OrderStatus.PENDING;
+                case CANCELLED -> OrderView.OrderStatus.CANCELLED;
+                case CONFIRMED, SHIPPED, DELIVERED -> OrderView.OrderStatus.CONFIRMED;
+            };
+            var reservation = reservationService.findReservation(orderId);
+            OrderView.ReservationStatus reservationStatus = reservation
+                    .map(result -> result.reserved()
+                            ? OrderView.ReservationStatus.RESERVED
+                            : OrderView.ReservationStatus.FAILED)
+                    .orElse(OrderView.ReservationStatus.PENDING);
+            String failureReason = reservation
+                    .filter(result -> !result.reserved())
+                    .map(result -> result.failureReason(order.quantity()))
+                    .orElse(null);
+            Optional<ShipmentDto> shipment = shippingService.findShipment(orderId);
+            
+            return new OrderView(
+                    orderId,
+                    order.customerId(),
+                    order.productId(),
+                    order.quantity(),
+                    order.totalAmount(),
+                    status,
+                    reservationStatus,
+                    failureReason,
+                    shipment.map(ShipmentDto::id).orElse(null),
+                    shipment.map(ShipmentDto::trackingNumber).orElse(null),
+                    (int) notificationService.countByOrder(orderId),
+                    Instant.now()
+            );
+        });
+    }
+}
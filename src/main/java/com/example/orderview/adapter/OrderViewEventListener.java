@@ -0,0 +1,79 @@
+package com.example.orderview.adapter;
+
+import com.example.inventory.adapter.InventoryReservationFailedEvent;
+import com.example.inventory.adapter.InventoryReservedEvent;
+import com.example.notification.adapter.NotificationEnqueuedEvent;
+import com.example.order.adapter.OrderCancelledEvent;
+import com.example.order.adapter.OrderConfirmedEvent;
+import com.example.order.adapter.OrderCreatedEvent;
+import com.example.orderview.application.OrderViewProjection;
+import com.example.shipping.adapter.ShipmentCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 各モジュールのイベントを注文ビューに反映する
+ * ビューの更新はメモリ上で完結するため、イベント発行登録簿に載る@ApplicationModuleListenerではなく
+ * @EventListenerで受け取り、発行元のトランザクションのコミット後に反映する（ロールバックされた変更は反映しない）
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderViewEventListener {
+    
+    private final OrderViewProjection projection;
+    
+    @EventListener
+    public void on(OrderCreatedEvent event) {
+        afterCommit(() -> projection.onOrderCreated(event.orderId(), event.customerId(), event.productId(),
+                event.quantity(), event.totalAmount()));
+    }
+    
+    @EventListener
+    public void on(InventoryReservedEvent event) {
+        afterCommit(() -> projection.onReserved(event.orderId()));
+    }
+    
+    @EventListener
+    public void on(InventoryReservationFailedEvent event) {
+        afterCommit(() -> projection.onReservationFailed(event.orderId(), event.reason()));
+    }
+    
+    @EventListener
+    public void on(OrderConfirmedEvent event) {
+        afterCommit(() -> projection.onConfirmed(event.orderId()));
+    }
+    
+    @EventListener
+    public void on(OrderCancelledEvent event) {
+        afterCommit(() -> projection.onCancelled(event.orderId()));
+    }
+    
+    @EventListener
+    public void on(ShipmentCreatedEvent event) {
+        afterCommit(() -> projection.onShipmentCreated(event.orderId(), event.shipmentId(), event.trackingNumber()));
+    }
+    
+    @EventListener
+    public void on(NotificationEnqueuedEvent event) {
+        if (event.orderId() == null) {
+            return;
+        }
+        afterCommit(() -> projection.onNotificationEnqueued(event.orderId()));
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
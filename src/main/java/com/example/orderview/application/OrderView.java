@@ -0,0 +1,67 @@
+package com.example.orderview.application;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 注文の状態をモジュールイベントから組み立てた読み取り専用ビュー
+ * イベントは到着順が前後し得るため、状態は後退しないように（ランクの高い方を残して）マージする
+ */
+public record OrderView(
+    UUID orderId,
+    String customerId,
+    String productId,
+    Integer quantity,
+    BigDecimal totalAmount,
+    OrderStatus status,
+    ReservationStatus reservationStatus,
+    String reservationFailureReason,
+    UUID shipmentId,
+    String trackingNumber,
+    int notificationCount,
+    Instant updatedAt
+) {
+    
+    public enum OrderStatus {
+        PENDING, CONFIRMED, CANCELLED
+    }
+    
+    public enum ReservationStatus {
+        PENDING, RESERVED, FAILED
+    }
+    
+    static OrderView empty(UUID orderId) {
+        return new OrderView(orderId, null, null, null, null, OrderStatus.PENDING, ReservationStatus.PENDING,
+                null, null, null, 0, Instant.now());
+    }
+    
+    OrderView withOrder(String customerId, String productId, Integer quantity, BigDecimal totalAmount) {
+        return new OrderView(orderId, customerId, productId, quantity, totalAmount, status, reservationStatus,
+                reservationFailureReason, shipmentId, trackingNumber, notificationCount, Instant.now());
+    }
+    
+    OrderView withStatus(OrderStatus newStatus) {
+        OrderStatus merged = newStatus.ordinal() > status.ordinal() ? newStatus : status;
+        return new OrderView(orderId, customerId, productId, quantity, totalAmount, merged, reservationStatus,
+                reservationFailureReason, shipmentId, trackingNumber, notificationCount, Instant.now());
+    }
+    
+    OrderView withReservation(ReservationStatus newStatus, String failureReason) {
+        if (newStatus.ordinal() <= reservationStatus.ordinal()) {
+            return this;
+        }
+        return new OrderView(orderId, customerId, productId, quantity, totalAmount, status, newStatus,
+                failureReason, shipmentId, trackingNumber, notificationCount, Instant.now());
+    }
+    
+    OrderView withShipment(UUID shipmentId, String trackingNumber) {
+        return new OrderView(orderId, customerId, productId, quantity, totalAmount, status, reservationStatus,
+                reservationFailureReason, shipmentId, trackingNumber, notificationCount, Instant.now());
+    }
+    
+    OrderView withNotification() {
+        return new OrderView(orderId, customerId, productId, quantity, totalAmount, status, reservationStatus,
+                reservationFailureReason, shipmentId, trackingNumber, notificationCount + 1, Instant.now());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.orderview.application;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * メモリ上にない注文ビューを各モジュールの現在の状態から組み立てる
+ */
+public interface OrderViewLoader {
+    
+    /**
+     * 注文が存在しない場合は空を返す
+     */
+    Optional<OrderView> load(UUID orderId);
+}
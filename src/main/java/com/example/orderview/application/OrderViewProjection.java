@@ -0,0 +1,93 @@
+package com.example.orderview.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * 注文ビューのプロジェクション
+ * 各モジュールのイベントを注文IDごとのビューに畳み込み、参照はDBを介さずO(1)で返す
+ * ビューはメモリ上にのみ保持する。再起動後や上限を超えて追い出された注文、
+ * 注文作成イベントより先に他のイベントだけを受け取った途中のビューは、参照時に{@link OrderViewLoader}で各モジュールから組み立て直す
+ */
+@Service
+public class OrderViewProjection {
+    
+    private final Cache<UUID, OrderView> views;
+    private final OrderViewLoader loader;
+    private final Counter loads;
+    
+    public OrderViewProjection(OrderViewProperties properties, OrderViewLoader loader, MeterRegistry meterRegistry) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .build();
+        this.loader = loader;
+        Gauge.builder("app.order-view.size", views, Cache::estimatedSize)
+                .description("メモリ上に保持している注文ビューの件数")
+                .register(meterRegistry);
+        this.loads = Counter.builder("app.order-view.loads")
+                .description("メモリ上にない注文ビューを各モジュールから組み立て直した回数")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 組み立て直したビューは、読み込み時点の各モジュールの状態を表す
+     * 読み込みと並行してコミット直後のイベントが反映されると、通知数を重複して数えることがある
+     */
+    public Optional<OrderView> find(UUID orderId) {
+        OrderView view = views.getIfPresent(orderId);
+        if (view != null && view.customerId() != null) {
+            return Optional.of(view);
+        }
+        Optional<OrderView> loaded = loader.load(orderId);
+        loaded.ifPresent(fresh -> {
+            loads.increment();
+            views.put(orderId, fresh);
+        });
+        return loaded;
+    }
+    
+    public void onOrderCreated(UUID orderId, String customerId, String productId, Integer quantity,
+                               BigDecimal totalAmount) {
+        apply(orderId, view -> view.withOrder(customerId, productId, quantity, totalAmount));
+    }
+    
+    public void onReserved(UUID orderId) {
+        apply(orderId, view -> view.withReservation(OrderView.ReservationStatus.RESERVED, null));
+    }
+    
+    public void onReservationFailed(UUID orderId, String reason) {
+        apply(orderId, view -> view.withReservation(OrderView.ReservationStatus.FAILED, reason));
+    }
+    
+    public void onConfirmed(UUID orderId) {
+        apply(orderId, view -> view.withStatus(OrderView.OrderStatus.CONFIRMED));
+    }
+    
+    public void onCancelled(UUID orderId) {
+        apply(orderId, view -> view.withStatus(OrderView.OrderStatus.CANCELLED));
+    }
+    
+    public void onShipmentCreated(UUID orderId, UUID shipmentId, String trackingNumber) {
+        apply(orderId, view -> view.withShipment(shipmentId, trackingNumber));
+    }
+    
+    public void onNotificationEnqueued(UUID orderId) {
+        apply(orderId, OrderView::withNotification);
+    }
+    
+    /**
+     * 同じ注文へのイベントが並行して届いても更新を取りこぼさないよう、注文単位でアトミックに適用する
+     */
+    private void apply(UUID orderId, UnaryOperator<OrderView> update) {
+        views.asMap().compute(orderId, (id, current) -> update.apply(current != null ? current : OrderView.empty(id)));
+    }
+}
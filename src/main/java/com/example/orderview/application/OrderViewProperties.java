@@ -0,0 +1,12 @@
+package com.example.orderview.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxSize メモリ上に保持する注文ビューの最大件数（超えた分は古いものから追い出される）
+ */
+@ConfigurationProperties(prefix = "app.order-view")
+public record OrderViewProperties(
+    @DefaultValue("100000") long maxSize
+) {}
@@ -0,0 +1,45 @@
+package com.example.shared.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 読み取りキャッシュのエントリを、呼び出し元のトランザクションのコミット後に無効化する
+ * コミット前に無効化すると、その間に読み込んだ古い値がキャッシュに戻ってしまうため
+ * 無効化の回数はapp.cache.invalidations（cache）で確認できる（cache.evictionsは上限・期限による追い出しのみ）
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheEvictor {
+    
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    
+    public void evictAfterCommit(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        Counter invalidations = Counter.builder("app.cache.invalidations")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.evict(key);
+            invalidations.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evict(key);
+                invalidations.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.shared.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 参照系の読み取りキャッシュの設定（キャッシュ名ごと）
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record ReadCacheProperties(
+    @DefaultValue Map<String, Spec> caches
+) {
+    /**
+     * @param maximumSize 保持する件数の上限（超えたらW-TinyLFUで追い出す）
+     * @param ttl 書き込みからの有効期間（イベントによる無効化を取りこぼした場合の上限）
+     */
+    public record Spec(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("30s") Duration ttl
+    ) {
+        public static final Spec DEFAULT = new Spec(10_000, Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,416 @@
+package com.example.shared.codec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * イベントのrecordをコンパクトなバイナリに変換する
+ * 型情報やフィールド名は書き込まず、recordの構成要素を宣言順に書き込む。
+ * 各recordの先頭には構成要素の数と、構成要素の名前・型から求めたフィンガープリント（4バイト）を書き込む。
+ * 読み込み時は、書き込んだ時点の構成要素が現在の定義の先頭部分と一致すれば読み込み、
+ * 末尾に追加された構成要素はnull（プリミティブは0・false）にする。一致しない場合は{@link IncompatibleRecordException}を投げる。
+ * 参照型の構成要素のnullはビットマスクで表し、整数はZigZag＋可変長で書き込む。
+ * 対応する構成要素の型: プリミティブとそのラッパー、String、UUID、Instant、BigDecimal、enum、record
+ *
+ * 文字列の表（interned strings）を指定すると、表にある文字列は表の位置（1バイト程度）だけを書き込み、
+ * 読み込み時は表の同じインスタンスを返す。表は書き込んだデータを読み込む間は追記のみとし、並びを変えないこと。
+ */
+public final class BinaryRecordCodec {
+    
+    private static final BinaryRecordCodec STANDARD = new BinaryRecordCodec(List.of());
+    
+    private final String[] internedStrings;
+    private final Map<String, Integer> internedIndexes;
+    private final ClassValue<RecordLayout> layouts = new ClassValue<>() {
+        @Override
+        protected RecordLayout computeValue(Class<?> type) {
+            return RecordLayout.of(type, BinaryRecordCodec.this);
+        }
+    };
+    
+    private BinaryRecordCodec(List<String> internedStrings) {
+        this.internedStrings = internedStrings.toArray(String[]::new);
+        this.internedIndexes = new HashMap<>();
+        for (int i = 0; i < this.internedStrings.length; i++) {
+            this.internedIndexes.putIfAbsent(this.internedStrings[i], i);
+        }
+    }
+    
+    /**
+     * 文字列の表を使わない変換
+     */
+    public static BinaryRecordCodec standard() {
+        return STANDARD;
+    }
+    
+    public static BinaryRecordCodec withInternedStrings(List<String> internedStrings) {
+        return internedStrings.isEmpty() ? STANDARD : new BinaryRecordCodec(internedStrings);
+    }
+    
+    public byte[] encode(Record record) {
+        Output output = new Output(128);
+        writeRecord(output, record);
+        return output.toByteArray();
+    }
+    
+    public <T extends Record> T decode(byte[] bytes, Class<T> type) {
+        return decode(ByteBuffer.wrap(bytes), type);
+    }
+    
+    /**
+     * bufferの現在位置から読み込み、読み込んだ分だけ位置を進める
+     *
+     * @throws IncompatibleRecordException 現在のrecordの定義で読み込めない場合
+     */
+    public <T extends Record> T decode(ByteBuffer buffer, Class<T> type) {
+        try {
+            return type.cast(readRecord(buffer, type));
+        } catch (BufferUnderflowException | IllegalStateException e) {
+            throw new IncompatibleRecordException("バイナリを読み込めません: " + type.getName(), e);
+        }
+    }
+    
+    private void writeRecord(Output output, Object record) {
+        RecordLayout layout = layouts.get(record.getClass());
+        Object[] values = layout.values(record);
+        output.writeVarLong(values.length);
+        output.writeInt(layout.fingerprints[values.length]);
+        long nulls = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                nulls |= 1L << i;
+            }
+        }
+        output.writeVarLong(nulls);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                layout.codecs[i].write(output, values[i]);
+            }
+        }
+    }
+    
+    private Object readRecord(ByteBuffer buffer, Class<?> type) {
+        RecordLayout layout = layouts.get(type);
+        long written = readVarLong(buffer);
+        int fingerprint = buffer.getInt();
+        if (written > layout.codecs.length || layout.fingerprints[(int) written] != fingerprint) {
+            throw new IncompatibleRecordException(String.format(
+                    "recordの定義が書き込み時と一致しません: %s（書き込み時の構成要素数=%d, フィンガープリント=%08x, 現在の構成要素数=%d）",
+                    type.getName(), written, fingerprint, layout.codecs.length));
+        }
+        int count = (int) written;
+        long nulls = readVarLong(buffer);
+        Object[] values = layout.defaults.clone();
+        for (int i = 0; i < count; i++) {
+            if ((nulls & (1L << i)) == 0) {
+                values[i] = layout.codecs[i].read(buffer);
+            }
+        }
+        return layout.construct(values);
+    }
+    
+    /**
+     * 文字列は先頭の可変長整数が表の件数未満なら表の位置、それ以外は（値 - 表の件数）バイトのUTF-8が続く
+     * 表が空の場合は長さ＋UTF-8になる
+     */
+    private void writeString(Output output, String value) {
+        Integer index = internedIndexes.get(value);
+        if (index != null) {
+            output.writeVarLong(index);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeVarLong((long) internedStrings.length + bytes.length);
+        output.writeRaw(bytes);
+    }
+    
+    private String readString(ByteBuffer in) {
+        long header = readVarLong(in);
+        if (header < internedStrings.length) {
+            return internedStrings[(int) header];
+        }
+        byte[] bytes = new byte[(int) (header - internedStrings.length)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private FieldCodec codecFor(Class<?> type) {
+        if (type == String.class) {
+            return FieldCodec.of((out, value) -> writeString(out, (String) value), this::readString);
+        }
+        if (type == int.class || type == Integer.class) {
+            return FieldCodec.of((out, value) -> out.writeVarLong(zigZag((Integer) value)),
+                    in -> (int) unZigZag(readVarLong(in)));
+        }
+        if (type == long.class || type == Long.class) {
+            return FieldCodec.of((out, value) -> out.writeVarLong(zigZag((Long) value)),
+                    in -> unZigZag(readVarLong(in)));
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return FieldCodec.of((out, value) -> out.writeByte((Boolean) value ? 1 : 0),
+                    in -> in.get() != 0);
+        }
+        if (type == double.class || type == Double.class) {
+            return FieldCodec.of((out, value) -> out.writeLong(Double.doubleToRawLongBits((Double) value)),
+                    in -> Double.longBitsToDouble(in.getLong()));
+        }
+        if (type == UUID.class) {
+            return FieldCodec.of((out, value) -> {
+                UUID uuid = (UUID) value;
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }, in -> new UUID(in.getLong(), in.getLong()));
+        }
+        if (type == Instant.class) {
+            return FieldCodec.of((out, value) -> {
+                Instant instant = (Instant) value;
+                out.writeVarLong(zigZag(instant.getEpochSecond()));
+                out.writeVarLong(instant.getNano());
+            }, in -> Instant.ofEpochSecond(unZigZag(readVarLong(in)), readVarLong(in)));
+        }
+        if (type == BigDecimal.class) {
+            return FieldCodec.of((out, value) -> {
+                BigDecimal decimal = (BigDecimal) value;
+                out.writeVarLong(zigZag(decimal.scale()));
+                out.writeBytes(decimal.unscaledValue().toByteArray());
+            }, in -> {
+                int scale = (int) unZigZag(readVarLong(in));
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            });
+        }
+        if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return FieldCodec.of((out, value) -> writeString(out, ((Enum<?>) value).name()),
+                    in -> {
+                        String name = readString(in);
+                        return Arrays.stream(constants)
+                                .filter(constant -> ((Enum<?>) constant).name().equals(name))
+                                .findFirst()
+                                .orElseThrow(() -> new IncompatibleRecordException(
+                                        "enumの値が見つかりません: " + type.getName() + "." + name));
+                    });
+        }
+        if (type.isRecord()) {
+            return FieldCodec.of(this::writeRecord, in -> readRecord(in, type));
+        }
+        throw new IllegalArgumentException("バイナリ形式に変換できない型です: " + type.getName());
+    }
+    
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.get(bytes);
+        return bytes;
+    }
+    
+    private record FieldCodec(Writer writer, Reader reader) {
+        
+        static FieldCodec of(Writer writer, Reader reader) {
+            return new FieldCodec(writer, reader);
+        }
+        
+        void write(Output output, Object value) {
+            writer.write(output, value);
+        }
+        
+        Object read(ByteBuffer buffer) {
+            return reader.read(buffer);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Writer {
+        void write(Output output, Object value);
+    }
+    
+    @FunctionalInterface
+    private interface Reader {
+        Object read(ByteBuffer buffer);
+    }
+    
+    /**
+     * recordの構成要素の読み出しと正準コンストラクタの呼び出しをMethodHandleでキャッシュしたもの
+     */
+    private static final class RecordLayout {
+        
+        private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+        private static final int FNV_PRIME = 0x01000193;
+        
+        private final MethodHandle[] accessors;
+        private final FieldCodec[] codecs;
+        private final MethodHandle constructor;
+        // 書き込み時に構成要素がなかった場合の値（参照型はnull、プリミティブは0・false）
+        private final Object[] defaults;
+        // fingerprints[k]は先頭k個の構成要素の名前と型から求めたフィンガープリント
+        private final int[] fingerprints;
+        
+        private RecordLayout(MethodHandle[] accessors, FieldCodec[] codecs, MethodHandle constructor,
+                             Object[] defaults, int[] fingerprints) {
+            this.accessors = accessors;
+            this.codecs = codecs;
+            this.constructor = constructor;
+            this.defaults = defaults;
+            this.fingerprints = fingerprints;
+        }
+        
+        static RecordLayout of(Class<?> type, BinaryRecordCodec codec) {
+            if (!type.isRecord()) {
+                throw new IllegalArgumentException("recordではありません: " + type.getName());
+            }
+            RecordComponent[] components = type.getRecordComponents();
+            if (components.length > Long.SIZE) {
+                throw new IllegalArgumentException("構成要素が多すぎます: " + type.getName());
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                MethodHandle[] accessors = new MethodHandle[components.length];
+                FieldCodec[] codecs = new FieldCodec[components.length];
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                Object[] defaults = new Object[components.length];
+                int[] fingerprints = new int[components.length + 1];
+                fingerprints[0] = FNV_OFFSET_BASIS;
+                for (int i = 0; i < components.length; i++) {
+                    Class<?> componentType = components[i].getType();
+                    accessors[i] = lookup.unreflect(components[i].getAccessor())
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                    codecs[i] = codec.codecFor(componentType);
+                    parameterTypes[i] = componentType;
+                    defaults[i] = componentType.isPrimitive() ? Array.get(Array.newInstance(componentType, 1), 0) : null;
+                    fingerprints[i + 1] = fingerprint(fingerprints[i],
+                            components[i].getName() + ":" + componentType.getName() + ";");
+                }
+                MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                return new RecordLayout(accessors, codecs, constructor, defaults, fingerprints);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("recordの構成要素を読み込めません: " + type.getName(), e);
+            }
+        }
+        
+        /**
+         * FNV-1a（32ビット）で前の構成要素までの値に続けてハッシュする
+         */
+        private static int fingerprint(int hash, String component) {
+            for (byte b : component.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+            }
+            return hash;
+        }
+        
+        Object[] values(Object record) {
+            Object[] values = new Object[accessors.length];
+            try {
+                for (int i = 0; i < accessors.length; i++) {
+                    values[i] = (Object) accessors[i].invokeExact(record);
+                }
+            } catch (Throwable e) {
+                throw new IllegalStateException("recordの構成要素を読み出せません: " + record.getClass().getName(), e);
+            }
+            return values;
+        }
+        
+        Object construct(Object[] values) {
+            try {
+                return (Object) constructor.invokeExact(values);
+            } catch (Throwable e) {
+                throw new IllegalStateException("recordを生成できません", e);
+            }
+        }
+    }
+    
+    /**
+     * 必要に応じて拡張するバイト列の書き込み先
+     */
+    private static final class Output {
+        
+        private byte[] bytes;
+        private int position;
+        
+        Output(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+        
+        void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[position++] = (byte) value;
+        }
+        
+        void writeInt(int value) {
+            ensureCapacity(Integer.BYTES);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[position++] = (byte) (value >>> shift);
+            }
+        }
+        
+        void writeLong(long value) {
+            ensureCapacity(Long.BYTES);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[position++] = (byte) (value >>> shift);
+            }
+        }
+        
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+        
+        void writeBytes(byte[] value) {
+            writeVarLong(value.length);
+            writeRaw(value);
+        }
+        
+        void writeRaw(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, position, value.length);
+            position += value.length;
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, position);
+        }
+        
+        private void ensureCapacity(int additional) {
+            if (position + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + additional));
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.shared.codec;
+
+/**
+ * 保存済みのバイナリが現在のrecordの定義と対応しない（構成要素の名前・型・並びが変わった、またはデータが壊れている）場合の例外
+ */
+public class IncompatibleRecordException extends IllegalArgumentException {
+    
+    public IncompatibleRecordException(String message) {
+        super(message);
+    }
+    
+    public IncompatibleRecordException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
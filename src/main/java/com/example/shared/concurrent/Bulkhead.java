@@ -0,0 +1,106 @@
+package com.example.shared.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * セマフォで同時実行数を、待機数の上限でキューの長さを制限する
+ * 待機はVirtual Thread上でのSemaphore.acquireのため、キャリアスレッドは占有しない
+ */
+public class Bulkhead {
+    
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer queueWait;
+    
+    public Bulkhead(String name, BulkheadProperties.Limits limits, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = limits.maxConcurrent();
+        this.maxWaiting = limits.maxWaiting();
+        this.permits = new Semaphore(limits.maxConcurrent(), true);
+        
+        Gauge.builder("app.executor.in-flight", inFlight, AtomicInteger::get)
+                .tag("module", name)
+                .register(meterRegistry);
+        Gauge.builder("app.executor.waiting", waiting, AtomicInteger::get)
+                .tag("module", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.executor.rejected")
+                .tag("module", name)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("app.executor.queue-wait")
+                .tag("module", name)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 待機枠を確保する。上限に達している場合はfalseを返す
+     */
+    public boolean tryEnqueue() {
+        while (true) {
+            int current = waiting.get();
+            if (current >= maxWaiting) {
+                rejected.increment();
+                return false;
+            }
+            if (waiting.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * {@link #tryEnqueue()}で待機枠を確保したタスクを、実行枠が空くまで待ってから実行する
+     */
+    public void runQueued(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            waiting.decrementAndGet();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        waiting.decrementAndGet();
+        inFlight.incrementAndGet();
+        queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        try {
+            task.run();
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+    
+    public boolean isSaturated() {
+        return waiting.get() >= maxWaiting;
+    }
+    
+    public Snapshot snapshot() {
+        return new Snapshot(name, maxConcurrent, maxWaiting, inFlight.get(), waiting.get(), (long) rejected.count());
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public record Snapshot(
+        String module,
+        int maxConcurrent,
+        int maxWaiting,
+        int inFlight,
+        int waiting,
+        long rejected
+    ) {}
+}
@@ -0,0 +1,33 @@
+package com.example.shared.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * タスクごとにVirtual Threadを起動し、{@link Bulkhead}で同時実行数を制限するExecutor
+ * 待機数が上限に達している場合はRejectedExecutionExceptionで即座に拒否する
+ */
+public class BulkheadExecutor implements Executor {
+    
+    private final Bulkhead bulkhead;
+    private final ThreadFactory threadFactory;
+    
+    public BulkheadExecutor(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+        this.threadFactory = Thread.ofVirtual().name(bulkhead.getName() + "-vt-", 0).factory();
+    }
+    
+    @Override
+    public void execute(Runnable task) {
+        if (!bulkhead.tryEnqueue()) {
+            throw new RejectedExecutionException("Bulkhead '" + bulkhead.getName() + "' is saturated");
+        }
+        threadFactory.newThread(() -> bulkhead.runQueued(task)).start();
+    }
+    
+    @Override
+    public String toString() {
+        return "BulkheadExecutor[" + bulkhead.getName() + "]";
+    }
+}
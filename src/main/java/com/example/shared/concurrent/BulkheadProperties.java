@@ -0,0 +1,25 @@
+package com.example.shared.concurrent;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * モジュールごとのバルクヘッド設定
+ * maxConcurrentの合計はHikariの最大プールサイズ未満にしておく
+ * （コミット後のイベント発行（publication）もトランザクションを開くため合計に含める）
+ */
+@ConfigurationProperties(prefix = "app.executor")
+public record BulkheadProperties(
+    @DefaultValue Map<String, Limits> bulkheads
+) {
+    /**
+     * @param maxConcurrent 同時に実行できるタスク数
+     * @param maxWaiting 実行待ちで保持できるタスク数（超えた分は拒否する）
+     */
+    public record Limits(
+        @DefaultValue("32") int maxConcurrent,
+        @DefaultValue("1000") int maxWaiting
+    ) {}
+}
@@ -0,0 +1,47 @@
+package com.example.shared.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * モジュール名をキーにバルクヘッドを保持する
+ * 設定にないモジュールはデフォルトの上限で作成する
+ */
+public class BulkheadRegistry {
+    
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    
+    public BulkheadRegistry(List<String> modules, BulkheadProperties properties, MeterRegistry meterRegistry) {
+        BulkheadProperties.Limits defaults = new BulkheadProperties.Limits(32, 1000);
+        for (String module : modules) {
+            BulkheadProperties.Limits limits = properties.bulkheads().getOrDefault(module, defaults);
+            bulkheads.put(module, new Bulkhead(module, limits, meterRegistry));
+        }
+    }
+    
+    public Bulkhead get(String module) {
+        Bulkhead bulkhead = bulkheads.get(module);
+        if (bulkhead == null) {
+            throw new IllegalArgumentException("Unknown bulkhead: " + module);
+        }
+        return bulkhead;
+    }
+    
+    /**
+     * 待機数が上限に達しているモジュールを返す（新規受付を止める判断に使う）
+     */
+    public Optional<Bulkhead> findSaturated() {
+        return bulkheads.values().stream()
+                .filter(Bulkhead::isSaturated)
+                .findFirst();
+    }
+    
+    public Collection<Bulkhead> all() {
+        return bulkheads.values();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.shared.concurrent;
+
+/**
+ * ベンチマーク用のCPU処理（指定した時間だけ計算を続ける）
+ */
+public final class CpuWork {
+    
+    private static volatile long sink;
+    
+    private CpuWork() {
+    }
+    
+    /**
+     * 指定した時間だけCPUを使い続ける（スレッドを待機させない）
+     */
+    public static void burn(long micros) {
+        if (micros <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + micros * 1_000;
+        long x = Thread.currentThread().threadId();
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 100; i++) {
+                // xorshiftで結果が最適化で消えない計算を続ける
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+        }
+        sink = x;
+    }
+}
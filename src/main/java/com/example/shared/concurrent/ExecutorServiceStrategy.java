@@ -0,0 +1,41 @@
+package com.example.shared.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntFunction;
+
+/**
+ * ExecutorServiceの上で、I/Oを待機するスレッドがそのままCPU処理も行う方式
+ *
+ * @param factory プールのスレッド数からExecutorServiceを作成する
+ */
+public record ExecutorServiceStrategy(
+    String name,
+    String description,
+    IntFunction<ExecutorService> factory
+) implements ExecutorStrategy {
+    
+    @Override
+    public Execution open(int poolSize) {
+        ExecutorService executor = factory.apply(poolSize);
+        return new Execution() {
+            @Override
+            public CompletableFuture<Void> submit(Task task) {
+                return CompletableFuture.runAsync(() -> {
+                    task.blockingIo();
+                    task.cpuWork();
+                }, executor);
+            }
+            
+            @Override
+            public void cancel() {
+                executor.shutdownNow();
+            }
+            
+            @Override
+            public void close() {
+                executor.shutdownNow();
+            }
+        };
+    }
+}
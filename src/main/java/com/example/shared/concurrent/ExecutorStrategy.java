@@ -0,0 +1,55 @@
+package com.example.shared.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ベンチマークでタスクを実行する方式（スレッドモデル）
+ * {@link ExecutorStrategyRegistry}に登録した方式を、同じワークロードで比較する。
+ */
+public interface ExecutorStrategy {
+    
+    /**
+     * 方式の名前（ベンチマークのパラメータ・結果の表で使う）
+     */
+    String name();
+    
+    String description();
+    
+    /**
+     * ベンチマーク1回分の実行環境を用意する（プールは実行ごとに作成し、close()で破棄する）
+     *
+     * @param poolSize プールのスレッド数（大きさを指定しない方式では無視する）
+     */
+    Execution open(int poolSize);
+    
+    interface Execution extends AutoCloseable {
+        
+        /**
+         * タスクを投入する
+         *
+         * @return タスクの完了（I/OとCPU処理の両方）で完了するCompletableFuture
+         */
+        CompletableFuture<Void> submit(Task task);
+        
+        /**
+         * 実行中のタスクを中断する（ベンチマークのジョブを中断した場合）
+         */
+        void cancel();
+        
+        @Override
+        void close();
+    }
+    
+    /**
+     * 1リクエスト分の処理（外部I/Oの後にCPU処理を行う）
+     * スレッドを待機させる方式はblockingIo、待機させない方式はasyncIoでI/Oを行う
+     */
+    interface Task {
+        
+        void blockingIo();
+        
+        CompletableFuture<Void> asyncIo();
+        
+        void cpuWork();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.shared.concurrent;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ベンチマークで比較する実行方式を名前で保持する
+ * 標準の方式に加えて、ExecutorStrategyのBeanを定義すればその方式も比較対象になる
+ */
+@Component
+public class ExecutorStrategyRegistry {
+    
+    private final Map<String, ExecutorStrategy> strategies = new LinkedHashMap<>();
+    
+    public ExecutorStrategyRegistry(List<ExecutorStrategy> additionalStrategies) {
+        register(new ExecutorServiceStrategy("virtual",
+                "Virtual Thread（タスクごと）。キャリアスレッド数=" + carrierParallelism(),
+                poolSize -> Executors.newVirtualThreadPerTaskExecutor()));
+        register(new ExecutorServiceStrategy("fixed",
+                "固定サイズのプラットフォームスレッドのプール（poolSize）",
+                Executors::newFixedThreadPool));
+        register(new ExecutorServiceStrategy("cached",
+                "必要に応じてプラットフォームスレッドを増やすプール（上限なし）",
+                poolSize -> Executors.newCachedThreadPool()));
+        register(new ExecutorServiceStrategy("fork-join",
+                "CPUコア数のForkJoinPool（ワークスティーリング）",
+                poolSize -> new ForkJoinPool(Runtime.getRuntime().availableProcessors())));
+        register(new NonBlockingStrategy());
+        additionalStrategies.forEach(this::register);
+    }
+    
+    public void register(ExecutorStrategy strategy) {
+        strategies.put(strategy.name(), strategy);
+    }
+    
+    public Optional<ExecutorStrategy> find(String name) {
+        return Optional.ofNullable(strategies.get(name));
+    }
+    
+    public Collection<ExecutorStrategy> all() {
+        return strategies.values();
+    }
+    
+    /**
+     * Virtual Threadのキャリアスレッド数（JVM起動時の-Djdk.virtualThreadScheduler.parallelismで決まり、実行中は変えられない）
+     */
+    public static int carrierParallelism() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.shared.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * I/Oを非同期に呼び出し、応答を受けたらCPU処理をCPUコア数のプールで続ける方式（CompletableFutureのチェーン）
+ * リアクティブなプログラミングモデルと同じく、I/Oの待機中はどのスレッドも占有しない
+ */
+public class NonBlockingStrategy implements ExecutorStrategy {
+    
+    @Override
+    public String name() {
+        return "completable-future";
+    }
+    
+    @Override
+    public String description() {
+        return "非同期I/O（HttpClient.sendAsync）＋CPUコア数のForkJoinPoolでのCPU処理";
+    }
+    
+    @Override
+    public Execution open(int poolSize) {
+        ForkJoinPool cpuPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        List<CompletableFuture<Void>> inFlight = new CopyOnWriteArrayList<>();
+        return new Execution() {
+            @Override
+            public CompletableFuture<Void> submit(Task task) {
+                CompletableFuture<Void> io = task.asyncIo();
+                inFlight.add(io);
+                return io.thenRunAsync(task::cpuWork, cpuPool);
+            }
+            
+            @Override
+            public void cancel() {
+                inFlight.forEach(io -> io.cancel(true));
+                cpuPool.shutdownNow();
+            }
+            
+            @Override
+            public void close() {
+                cpuPool.shutdownNow();
+            }
+        };
+    }
+}
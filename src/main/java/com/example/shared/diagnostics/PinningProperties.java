@@ -0,0 +1,20 @@
+package com.example.shared.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param threshold この時間以上ピン留めされた場合に記録する（JFRのデフォルトは20ms）
+ * @param stackDepth 集計キーに使うスタックフレーム数
+ * @param maxStacks 保持するスタックの種類の上限
+ */
+@ConfigurationProperties(prefix = "app.diagnostics.pinning")
+public record PinningProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("5ms") Duration threshold,
+    @DefaultValue("12") int stackDepth,
+    @DefaultValue("500") int maxStacks
+) {
+}
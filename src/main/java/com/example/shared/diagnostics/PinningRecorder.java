@@ -0,0 +1,169 @@
+package com.example.shared.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * JFRのjdk.VirtualThreadPinned / jdk.VirtualThreadSubmitFailedイベントを購読し、スタックごとに集計する
+ * synchronizedブロック内でのブロッキング（Hibernate/H2/JDBCドライバなど）でキャリアスレッドが
+ * ピン留めされている箇所を特定するために使う
+ */
+@Component
+@Slf4j
+public class PinningRecorder implements SmartLifecycle {
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    
+    private final PinningProperties properties;
+    private final ConcurrentHashMap<String, StackStats> pinnedStacks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, StackStats> submitFailedStacks = new ConcurrentHashMap<>();
+    private final LongAdder droppedStacks = new LongAdder();
+    private volatile RecordingStream stream;
+    private volatile Instant startedAt;
+    
+    public PinningRecorder(PinningProperties properties) {
+        this.properties = properties;
+    }
+    
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(properties.threshold())
+                .withStackTrace();
+        recordingStream.enable(SUBMIT_FAILED_EVENT)
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, event -> record(pinnedStacks, event));
+        recordingStream.onEvent(SUBMIT_FAILED_EVENT, event -> record(submitFailedStacks, event));
+        recordingStream.startAsync();
+        
+        stream = recordingStream;
+        startedAt = Instant.now();
+        log.info("Virtual Threadのピン留め検出を開始しました: しきい値={}", properties.threshold());
+    }
+    
+    @Override
+    public void stop() {
+        RecordingStream recordingStream = stream;
+        if (recordingStream != null) {
+            recordingStream.close();
+            stream = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+    
+    public PinningReport report(int limit) {
+        return new PinningReport(
+                stream != null,
+                properties.threshold().toMillis(),
+                startedAt,
+                summarize(pinnedStacks, limit),
+                summarize(submitFailedStacks, limit),
+                droppedStacks.sum()
+        );
+    }
+    
+    public void reset() {
+        pinnedStacks.clear();
+        submitFailedStacks.clear();
+        droppedStacks.reset();
+        startedAt = Instant.now();
+    }
+    
+    private void record(ConcurrentHashMap<String, StackStats> stacks, RecordedEvent event) {
+        String key = stackKey(event.getStackTrace());
+        StackStats stats = stacks.get(key);
+        if (stats == null) {
+            if (stacks.size() >= properties.maxStacks()) {
+                droppedStacks.increment();
+                return;
+            }
+            stats = stacks.computeIfAbsent(key, k -> new StackStats());
+        }
+        stats.record(event.getDuration());
+    }
+    
+    private String stackKey(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<no stack trace>";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(properties.stackDepth())
+                .map(PinningRecorder::formatFrame)
+                .collect(Collectors.joining("\n"));
+    }
+    
+    private static String formatFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+    
+    private static List<StackReport> summarize(ConcurrentHashMap<String, StackStats> stacks, int limit) {
+        return stacks.entrySet().stream()
+                .map(entry -> entry.getValue().toReport(entry.getKey()))
+                .sorted(Comparator.comparingDouble(StackReport::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+    
+    private static final class StackStats {
+        
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        
+        void record(Duration duration) {
+            long nanos = duration.toNanos();
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+        
+        StackReport toReport(String stack) {
+            return new StackReport(
+                    List.of(stack.split("\n")),
+                    count.sum(),
+                    totalNanos.sum() / 1_000_000.0,
+                    maxNanos.get() / 1_000_000.0
+            );
+        }
+    }
+    
+    public record PinningReport(
+        boolean recording,
+        long thresholdMs,
+        Instant since,
+        List<StackReport> pinned,
+        List<StackReport> submitFailed,
+        long droppedStacks
+    ) {}
+    
+    public record StackReport(
+        List<String> frames,
+        long count,
+        double totalMs,
+        double maxMs
+    ) {}
+}
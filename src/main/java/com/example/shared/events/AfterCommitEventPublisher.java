@@ -0,0 +1,137 @@
+package com.example.shared.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import com.example.config.VirtualThreadConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * モジュールイベントを発行する
+ * 既定（app.events.publication.mode=IN_TRANSACTION）では呼び出し元のトランザクション内で発行し、
+ * データとイベント登録簿の書き込みを原子的に行う。
+ * AFTER_COMMITでは呼び出し元のトランザクションのコミット後にイベントをVirtual Thread上で発行し、
+ * イベント登録簿への書き込み（リスナーごとに1行）とシリアライズをリクエストの応答時間に含めないようにする。
+ * 発行は新しいトランザクションで行うため、@ApplicationModuleListenerのリスナーはそのトランザクションのコミット後に呼び出される。
+ * コミットから発行までの間にプロセスが停止するとイベントは失われる。
+ * 発行待ちはpublicationのバルクヘッドで制限し、待機数が上限に達した場合は呼び出し元のスレッドで発行する（流入を抑える）。
+ */
+@Component
+@Slf4j
+public class AfterCommitEventPublisher {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<EventPublicationProperties.Mode> mode;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter failures;
+    
+    public AfterCommitEventPublisher(ApplicationEventPublisher eventPublisher,
+                                     @Qualifier(VirtualThreadConfig.PUBLICATION_TASK_EXECUTOR) Executor executor,
+                                     PlatformTransactionManager transactionManager,
+                                     EventPublicationProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mode = new AtomicReference<>(properties.mode());
+        Gauge.builder("app.events.async-publication.in-flight", inFlight, AtomicInteger::get)
+                .description("コミット後の発行を待っているイベントのまとまりの数")
+                .register(meterRegistry);
+        this.failures = Counter.builder("app.events.async-publication.failures")
+                .register(meterRegistry);
+    }
+    
+    public void publish(Object event) {
+        publishAll(List.of(event));
+    }
+    
+    /**
+     * 複数のイベントを1つのトランザクションでまとめて発行する
+     * トランザクション外で呼び出された場合はすぐにVirtual Threadへ引き渡す
+     */
+    public void publishAll(List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (mode.get() == EventPublicationProperties.Mode.IN_TRANSACTION) {
+            events.forEach(eventPublisher::publishEvent);
+            return;
+        }
+        
+        inFlight.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        handOff(events);
+                    } else {
+                        // ロールバックされたデータのイベントは発行しない
+                        inFlight.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            handOff(events);
+        }
+    }
+    
+    public EventPublicationProperties.Mode getMode() {
+        return mode.get();
+    }
+    
+    /**
+     * 発行方式を切り替える（負荷テストで方式を比較するため）
+     * 切り替え前にコミット後の発行を待っていたイベントは、そのまま発行される
+     */
+    public void switchMode(EventPublicationProperties.Mode newMode) {
+        EventPublicationProperties.Mode previous = mode.getAndSet(newMode);
+        if (previous != newMode) {
+            log.info("イベントの発行方式を切り替えました: {} → {}", previous, newMode);
+        }
+    }
+    
+    /**
+     * コミット後の発行を待っているイベントのまとまりの数
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+    
+    private void handOff(List<?> events) {
+        try {
+            executor.execute(() -> publishInNewTransaction(events));
+        } catch (RejectedExecutionException e) {
+            // 発行待ちが上限に達している場合は呼び出し元のスレッドで発行する（応答が遅れる分、流入が抑えられる）
+            publishInNewTransaction(events);
+        }
+    }
+    
+    private void publishInNewTransaction(List<?> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> events.forEach(eventPublisher::publishEvent));
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("コミット後のイベント発行に失敗しました: 件数={}, 先頭={}", events.size(), events.get(0), e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.shared.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * イベント登録簿の完了（completion_date）を件数・時間で区切ってまとめ、主キー指定のJDBCバッチUPDATEで反映する
+ * リスナーのスレッドはキューに積むだけで待たない。反映前にプロセスが停止した場合は未完了のまま残り、
+ * 再送の対象になる（リスナーは少なくとも1回呼び出される）。
+ */
+@Slf4j
+class EventPublicationCompleter {
+    
+    private static final String MARK_COMPLETED = "update event_publication set completion_date = ? where id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventRegistryProperties.Completion properties;
+    private final LinkedBlockingQueue<Completion> queue = new LinkedBlockingQueue<>();
+    private final Counter completions;
+    private final Timer flushTimer;
+    private Thread completer;
+    
+    EventPublicationCompleter(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              EventRegistryProperties.Completion properties,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.completions = Counter.builder("app.events.registry.completions")
+                .tag("path", "batched")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("app.events.registry.completion-flush")
+                .register(meterRegistry);
+    }
+    
+    void start() {
+        completer = Thread.ofVirtual().name("event-publication-completer").start(this::runFlushLoop);
+    }
+    
+    /**
+     * キューに残っている完了を反映してから停止する
+     */
+    void stop() throws InterruptedException {
+        completer.interrupt();
+        completer.join();
+        List<Completion> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+    
+    void complete(UUID publicationId, Instant completionDate) {
+        queue.add(new Completion(publicationId, completionDate));
+    }
+    
+    int pending() {
+        return queue.size();
+    }
+    
+    private void runFlushLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Completion> batch = new ArrayList<>(properties.batchSize());
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.maxWaitMs());
+                while (batch.size() < properties.batchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Completion next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, properties.batchSize() - batch.size());
+            } catch (InterruptedException e) {
+                // 取り出し済みの分はキューに戻し、stop()で反映する
+                queue.addAll(batch);
+                return;
+            }
+            flush(batch);
+        }
+    }
+    
+    private void flush(List<Completion> batch) {
+        long startNanos = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(MARK_COMPLETED, batch,
+                    batch.size(), (statement, completion) -> {
+                        statement.setTimestamp(1, Timestamp.from(completion.completionDate()));
+                        statement.setObject(2, completion.publicationId());
+                    }));
+            completions.increment(batch.size());
+        } catch (RuntimeException e) {
+            // 反映できなかった登録は未完了のまま残り、再送の対象になる
+            log.error("イベント登録簿の完了の反映に失敗しました: 件数={}", batch.size(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private record Completion(UUID publicationId, Instant completionDate) {}
+}
@@ -0,0 +1,222 @@
+package com.example.shared.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * メモリ上の登録簿の未完了の登録を再起動後に復元するための追記型ジャーナル
+ * 登録（P）と完了（C）を1行ずつ追記する。シリアライズと書き込みは専用のVirtual Threadがまとめて行い、
+ * 登録・完了を呼び出したスレッドはキューに積むだけで待たない。
+ * そのため書き込み前にプロセスが停止した場合、直前の登録・完了は失われる（完了が失われた登録は再送される）。
+ * ファイルがcompact-threshold-bytes（と前回書き直した直後の大きさの2倍）を超えたら、その時点の未完了の登録だけを書き直す。
+ */
+@Slf4j
+class EventPublicationJournal {
+    
+    private static final char SEPARATOR = '\t';
+    private static final String PUBLISHED = "P";
+    private static final String COMPLETED = "C";
+    // 書き込みスレッドを止める目印（FileChannelは割り込まれると閉じてしまうため、割り込みでは止めない）
+    private static final Entry STOP = new Entry(null, null);
+    
+    private final EventRegistryProperties.Journal properties;
+    private final EventSerializer serializer;
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Counter appended;
+    private Supplier<Collection<StoredEventPublication>> incompleteSnapshot;
+    private FileChannel channel;
+    private long compactedSize;
+    private Thread writer;
+    
+    EventPublicationJournal(EventRegistryProperties.Journal properties,
+                            EventSerializer serializer,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.serializer = serializer;
+        this.appended = Counter.builder("app.events.registry.journal.appended")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * ジャーナルを読み込んで未完了の登録を復元し、未完了の登録だけのファイルに書き直す
+     */
+    List<StoredEventPublication> recover() throws IOException {
+        Path path = properties.path();
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        
+        Map<UUID, StoredEventPublication> incomplete = new LinkedHashMap<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(String.valueOf(SEPARATOR), 6);
+                try {
+                    switch (fields[0]) {
+                        case PUBLISHED -> {
+                            StoredEventPublication publication = parsePublished(fields);
+                            incomplete.put(publication.getIdentifier(), publication);
+                        }
+                        case COMPLETED -> incomplete.remove(UUID.fromString(fields[1]));
+                        default -> skipped++;
+                    }
+                } catch (RuntimeException | ClassNotFoundException e) {
+                    // 停止時に書きかけだった末尾の行など、読めない行は読み飛ばす
+                    skipped++;
+                }
+            }
+        }
+        if (skipped > 0) {
+            log.warn("イベントのジャーナルの読めない行を読み飛ばしました: 件数={}", skipped);
+        }
+        
+        List<StoredEventPublication> recovered = new ArrayList<>(incomplete.values());
+        rewrite(recovered);
+        return recovered;
+    }
+    
+    void start(Supplier<Collection<StoredEventPublication>> incompleteSnapshot) throws IOException {
+        this.incompleteSnapshot = incompleteSnapshot;
+        Path parent = properties.path().toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = openForAppend();
+        writer = Thread.ofVirtual().name("event-journal-writer").start(this::runWriteLoop);
+    }
+    
+    /**
+     * キューに残っている行を書き込んでから閉じる
+     * 書き込みスレッドは目印より前の行を書き終えてから終了し、その後に積まれた行はここで書き込む
+     */
+    void stop() throws InterruptedException, IOException {
+        queue.add(STOP);
+        writer.join();
+        List<Entry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        write(remaining);
+        channel.close();
+    }
+    
+    void appendPublished(StoredEventPublication publication) {
+        queue.add(new Entry(publication, publication.getIdentifier()));
+    }
+    
+    void appendCompleted(UUID publicationId) {
+        queue.add(new Entry(null, publicationId));
+    }
+    
+    private void runWriteLoop() {
+        List<Entry> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            stopping = batch.remove(STOP);
+            try {
+                write(batch);
+                // 未完了の登録だけで閾値を超えている間に書き直しを繰り返さないよう、前回の大きさの2倍も条件にする
+                if (channel.size() > Math.max(properties.compactThresholdBytes(), compactedSize * 2)) {
+                    compact();
+                }
+            } catch (IOException e) {
+                log.error("イベントのジャーナルへの書き込みに失敗しました: 件数={}", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+    
+    private void write(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StringBuilder buffer = new StringBuilder();
+        for (Entry entry : entries) {
+            String line = entry.published() != null
+                    ? formatPublished(entry.published())
+                    : COMPLETED + SEPARATOR + entry.publicationId();
+            buffer.append(line).append('\n');
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(buffer.toString());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        if (properties.fsync()) {
+            channel.force(false);
+        }
+        appended.increment(entries.size());
+    }
+    
+    /**
+     * その時点の未完了の登録だけのファイルに置き換える
+     * キューに残っている登録（P）が書き直したファイルと重複しても、読み込み時はIDで上書きされるため問題ない
+     */
+    private void compact() throws IOException {
+        channel.close();
+        rewrite(incompleteSnapshot.get());
+        channel = openForAppend();
+        compactedSize = channel.size();
+        log.info("イベントのジャーナルを書き直しました: 大きさ={}バイト", compactedSize);
+    }
+    
+    private void rewrite(Collection<StoredEventPublication> publications) throws IOException {
+        Path path = properties.path();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        List<String> lines = publications.stream().map(this::formatPublished).toList();
+        Files.write(temporary, lines, StandardCharsets.UTF_8);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private FileChannel openForAppend() throws IOException {
+        return FileChannel.open(properties.path(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    
+    private String formatPublished(StoredEventPublication publication) {
+        Object serialized = serializer.serialize(publication.getEvent());
+        return PUBLISHED + SEPARATOR + publication.getIdentifier()
+                + SEPARATOR + publication.getTargetIdentifier().getValue()
+                + SEPARATOR + publication.getEvent().getClass().getName()
+                + SEPARATOR + publication.getPublicationDate()
+                + SEPARATOR + serialized;
+    }
+    
+    private StoredEventPublication parsePublished(String[] fields) throws ClassNotFoundException {
+        Class<?> eventType = ClassUtils.forName(fields[3], EventPublicationJournal.class.getClassLoader());
+        return new StoredEventPublication(UUID.fromString(fields[1]), serializer.deserialize(fields[5], eventType),
+                PublicationTargetIdentifier.of(fields[2]), Instant.parse(fields[4]));
+    }
+    
+    /**
+     * ジャーナルに追記する1行（publishedがnullなら完了）
+     */
+    private record Entry(StoredEventPublication published, UUID publicationId) {}
+}
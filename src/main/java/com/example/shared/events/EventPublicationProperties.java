@@ -0,0 +1,19 @@
+package com.example.shared.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.events.publication")
+public record EventPublicationProperties(
+    @DefaultValue("IN_TRANSACTION") Mode mode
+) {
+    public enum Mode {
+        /** 呼び出し元のトランザクション内でそのまま発行する（データとイベント登録簿の書き込みが同じトランザクションになる） */
+        IN_TRANSACTION,
+        /**
+         * 呼び出し元のトランザクションのコミット後に、Virtual Thread上の新しいトランザクションで発行する
+         * コミットから発行までの間にプロセスが停止するとイベントは失われる
+         */
+        AFTER_COMMIT
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.shared.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * TUNEDモードのイベント登録簿の定期メンテナンス
+ * 完了済みの登録を保持期間の経過後に少しずつ削除し、登録簿（とcompletion_dateのインデックス）を小さく保つ。
+ * 未完了の登録はページ単位で読み込んで再送する（既定の再送は未完了の登録をすべてメモリに載せる）。
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.events.registry", name = "mode", havingValue = "TUNED")
+@Slf4j
+public class EventRegistryMaintenance {
+    
+    private static final String DELETE_COMPLETED_CHUNK = """
+            delete from event_publication
+             where id in (select id from event_publication
+                           where completion_date < ?
+                           limit ?)
+            """;
+    
+    private final TunedEventPublicationRepository repository;
+    private final IncompleteEventPublications incompletePublications;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventRegistryProperties properties;
+    private final Counter purged;
+    private final Counter resubmitted;
+    
+    public EventRegistryMaintenance(TunedEventPublicationRepository repository,
+                                    IncompleteEventPublications incompletePublications,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    EventRegistryProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.incompletePublications = incompletePublications;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.purged = Counter.builder("app.events.registry.purged")
+                .register(meterRegistry);
+        this.resubmitted = Counter.builder("app.events.registry.resubmitted")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 保持期間を過ぎた完了済みの登録を、chunk-size件ずつ別々のトランザクションで削除する
+     */
+    @Scheduled(initialDelayString = "${app.events.registry.purge.interval-ms:60000}",
+               fixedDelayString = "${app.events.registry.purge.interval-ms:60000}")
+    public void purgeCompletedPublications() {
+        Instant threshold = Instant.now().minus(properties.purge().retention());
+        int chunkSize = properties.purge().chunkSize();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    jdbcTemplate.update(DELETE_COMPLETED_CHUNK, Timestamp.from(threshold), chunkSize));
+            total += deleted;
+        } while (deleted == chunkSize);
+        
+        // 完了しないまま保持期間を過ぎた登録のIDの記録も捨てる
+        repository.evictRegistrationsBefore(threshold);
+        if (total > 0) {
+            purged.increment(total);
+            log.info("完了済みのイベント登録を削除しました: 件数={}", total);
+        }
+    }
+    
+    /**
+     * 発行からolder-than以上経っても未完了の登録を、page-size件ずつ読み込んでリスナーへ再送する
+     */
+    @Scheduled(initialDelayString = "${app.events.registry.resubmission.interval-ms:60000}",
+               fixedDelayString = "${app.events.registry.resubmission.interval-ms:60000}")
+    public void resubmitIncompletePublications() {
+        if (!properties.resubmission().enabled()) {
+            return;
+        }
+        int pageSize = properties.resubmission().pageSize();
+        TunedEventPublicationRepository.PageWindow.Position after = null;
+        int total = 0;
+        TunedEventPublicationRepository.PageWindow window;
+        do {
+            window = new TunedEventPublicationRepository.PageWindow(after, pageSize);
+            repository.withPage(window, () -> incompletePublications.resubmitIncompletePublicationsOlderThan(
+                    properties.resubmission().olderThan()));
+            total += window.read();
+            after = window.last();
+        } while (window.isFull());
+        
+        if (total > 0) {
+            resubmitted.increment(total);
+            log.info("未完了のイベント登録を再送しました: 件数={}", total);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.shared.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.events.registry")
+public record EventRegistryProperties(
+    @DefaultValue("DEFAULT") Mode mode,
+    @DefaultValue Completion completion,
+    @DefaultValue Purge purge,
+    @DefaultValue Resubmission resubmission,
+    @DefaultValue InMemory inMemory
+) {
+    public enum Mode {
+        /** spring-modulith-events-jpaの登録簿をそのまま使う */
+        DEFAULT,
+        /** 完了の一括反映・完了済みの定期削除・ページ単位の再送を行う */
+        TUNED,
+        /** データベースを使わずメモリ上で管理する（必要ならファイルのジャーナルで再起動後に復元する） */
+        IN_MEMORY
+    }
+    
+    /**
+     * @param batchSize 1回のUPDATEバッチにまとめる完了の最大件数
+     * @param maxWaitMs 最初の完了を受け付けてからバッチを確定するまでの最大待ち時間
+     */
+    public record Completion(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("20") long maxWaitMs
+    ) {}
+    
+    /**
+     * @param retention 完了後に保持する期間
+     * @param intervalMs 削除を実行する間隔
+     * @param chunkSize 1回のDELETEで削除する最大件数（ロックとUNDOの肥大化を避ける）
+     */
+    public record Purge(
+        @DefaultValue("10m") Duration retention,
+        @DefaultValue("60000") long intervalMs,
+        @DefaultValue("1000") int chunkSize
+    ) {}
+    
+    /**
+     * @param enabled 未完了の登録を定期的に再送するか
+     * @param olderThan 発行からこの期間を過ぎても未完了のものを再送の対象とする
+     * @param intervalMs 再送を実行する間隔
+     * @param pageSize 1回に読み込む未完了の登録の件数
+     */
+    public record Resubmission(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1m") Duration olderThan,
+        @DefaultValue("60000") long intervalMs,
+        @DefaultValue("500") int pageSize
+    ) {}
+    
+    /**
+     * @param journal 未完了の登録を再起動後に復元するための追記型ジャーナル
+     */
+    public record InMemory(
+        @DefaultValue Journal journal
+    ) {}
+    
+    /**
+     * @param enabled ジャーナルに書き込むか
+     * @param path ジャーナルのファイル
+     * @param fsync 書き込みのたびにディスクへ同期するか（falseの場合はOSのキャッシュに任せる）
+     * @param compactThresholdBytes ジャーナルがこの大きさを超えたら未完了の登録だけに書き直す
+     */
+    public record Journal(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/event-journal.log") Path path,
+        @DefaultValue("false") boolean fsync,
+        @DefaultValue("67108864") long compactThresholdBytes
+    ) {}
+}
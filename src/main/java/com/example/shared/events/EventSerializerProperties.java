@@ -0,0 +1,25 @@
+package com.example.shared.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * @param format イベント登録簿に保存するイベントの形式
+ * @param basePackage バイナリ形式で保存するイベントのパッケージ（それ以外はJSON）
+ * @param internedStrings 位置だけを書き込む文字列の表（保存済みのイベントを読む間は追記のみ）
+ */
+@ConfigurationProperties(prefix = "app.events.serializer")
+public record EventSerializerProperties(
+    @DefaultValue("JSON") Format format,
+    @DefaultValue("com.example") String basePackage,
+    @DefaultValue List<String> internedStrings
+) {
+    public enum Format {
+        /** spring-modulith-events-jacksonのJSON */
+        JSON,
+        /** BinaryRecordCodecのバイナリをBase64にした文字列 */
+        BINARY
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.shared.events;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * イベントの登録簿をデータベースではなくメモリ上で管理する
+ * イベントの発行ごとのINSERTと完了ごとのUPDATEがなくなり、登録・完了はConcurrentHashMapへの操作だけになる。
+ * 完了した登録はすぐに捨てるため、保持するのは処理中・失敗した登録だけになる。
+ * プロセスが停止すると未完了の登録は失われるため、再起動後に再送したい場合は
+ * app.events.registry.in-memory.journal.enabled=trueでジャーナルに書き込む。
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "app.events.registry", name = "mode", havingValue = "IN_MEMORY")
+@Slf4j
+public class InMemoryEventPublicationRepository implements EventPublicationRepository {
+    
+    private final ConcurrentHashMap<UUID, StoredEventPublication> incomplete = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, UUID> identifiers = new ConcurrentHashMap<>();
+    private final EventPublicationJournal journal;
+    
+    public InMemoryEventPublicationRepository(EventSerializer serializer,
+                                              EventRegistryProperties properties,
+                                              MeterRegistry meterRegistry) {
+        EventRegistryProperties.Journal journalProperties = properties.inMemory().journal();
+        this.journal = journalProperties.enabled()
+                ? new EventPublicationJournal(journalProperties, serializer, meterRegistry)
+                : null;
+        Gauge.builder("app.events.registry.incomplete", incomplete, ConcurrentHashMap::size)
+                .description("メモリ上の登録簿にある未完了の登録の件数")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        List<StoredEventPublication> recovered = journal.recover();
+        recovered.forEach(this::register);
+        journal.start(incomplete::values);
+        log.info("イベントのジャーナルから未完了の登録を復元しました: 件数={}", recovered.size());
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (journal != null) {
+            journal.stop();
+        }
+    }
+    
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        StoredEventPublication stored = StoredEventPublication.of(publication);
+        register(stored);
+        if (journal != null) {
+            journal.appendPublished(stored);
+        }
+        
+        // 発行したトランザクションがロールバックされた場合は登録も取り消す（JPAの登録簿と同じ振る舞い）
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        remove(stored.getIdentifier());
+                    }
+                }
+            });
+        }
+        return stored;
+    }
+    
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        UUID publicationId = identifiers.get(new Key(event, identifier.getValue()));
+        if (publicationId != null) {
+            remove(publicationId);
+        }
+    }
+    
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return incomplete.values().stream()
+                .sorted(Comparator.comparing(EventPublication::getPublicationDate))
+                .map(TargetEventPublication.class::cast)
+                .toList();
+    }
+    
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return incomplete.values().stream()
+                .filter(publication -> publication.getPublicationDate().isBefore(instant))
+                .sorted(Comparator.comparing(EventPublication::getPublicationDate))
+                .map(TargetEventPublication.class::cast)
+                .toList();
+    }
+    
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(
+            Object event, PublicationTargetIdentifier identifier) {
+        return Optional.ofNullable(identifiers.get(new Key(event, identifier.getValue())))
+                .map(incomplete::get);
+    }
+    
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        identifiers.forEach(this::remove);
+    }
+    
+    @Override
+    public void deleteCompletedPublications() {
+        // 完了した登録は保持しない
+    }
+    
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        // 完了した登録は保持しない
+    }
+    
+    private void register(StoredEventPublication publication) {
+        incomplete.put(publication.getIdentifier(), publication);
+        identifiers.put(new Key(publication.getEvent(), publication.getTargetIdentifier().getValue()),
+                publication.getIdentifier());
+    }
+    
+    private void remove(UUID publicationId) {
+        StoredEventPublication removed = incomplete.remove(publicationId);
+        if (removed == null) {
+            return;
+        }
+        identifiers.remove(new Key(removed.getEvent(), removed.getTargetIdentifier().getValue()), publicationId);
+        if (journal != null) {
+            journal.appendCompleted(publicationId);
+        }
+    }
+    
+    private record Key(Object event, String listenerId) {}
+}
@@ -0,0 +1,64 @@
+package com.example.shared.events;
+
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * メモリ上の登録簿とジャーナルで扱うイベントの登録
+ * ジャーナルから復元したときに登録時のIDを保てるよう、IDを指定して作れるようにしている
+ */
+final class StoredEventPublication implements TargetEventPublication {
+    
+    private final UUID identifier;
+    private final Object event;
+    private final PublicationTargetIdentifier targetIdentifier;
+    private final Instant publicationDate;
+    private volatile Instant completionDate;
+    
+    StoredEventPublication(UUID identifier, Object event, PublicationTargetIdentifier targetIdentifier,
+                           Instant publicationDate) {
+        this.identifier = identifier;
+        this.event = event;
+        this.targetIdentifier = targetIdentifier;
+        this.publicationDate = publicationDate;
+    }
+    
+    static StoredEventPublication of(TargetEventPublication publication) {
+        return new StoredEventPublication(publication.getIdentifier(), publication.getEvent(),
+                publication.getTargetIdentifier(), publication.getPublicationDate());
+    }
+    
+    @Override
+    public UUID getIdentifier() {
+        return identifier;
+    }
+    
+    @Override
+    public Object getEvent() {
+        return event;
+    }
+    
+    @Override
+    public PublicationTargetIdentifier getTargetIdentifier() {
+        return targetIdentifier;
+    }
+    
+    @Override
+    public Instant getPublicationDate() {
+        return publicationDate;
+    }
+    
+    @Override
+    public Optional<Instant> getCompletionDate() {
+        return Optional.ofNullable(completionDate);
+    }
+    
+    @Override
+    public void markCompleted(Instant instant) {
+        this.completionDate = instant;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.shared.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.ClassUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * spring-modulith-events-jpaのイベント登録簿の書き込み・読み込みの経路を負荷に合わせて置き換える
+ * 既定の完了処理はserialized_eventとlistener_idの一致で行を探すUPDATEで、インデックスが効かず
+ * 登録簿が大きくなるほど遅くなる。ここでは登録時に採番された行のIDを覚えておき、
+ * 完了をEventPublicationCompleterに渡して主キー指定のバッチUPDATEでまとめて反映する。
+ * 再送の読み込みはPagedResubmissionが指定したページの範囲だけを返し、登録簿全体をメモリに載せない。
+ * 登録（INSERT）と削除は既定の実装に委譲する。
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "app.events.registry", name = "mode", havingValue = "TUNED")
+public class TunedEventPublicationRepository implements EventPublicationRepository {
+    
+    private static final String SELECT_FIRST_INCOMPLETE_PAGE = """
+            select id, listener_id, event_type, serialized_event, publication_date
+              from event_publication
+             where completion_date is null
+               and publication_date < ?
+             order by publication_date, id
+             limit ?
+            """;
+    
+    private static final String SELECT_NEXT_INCOMPLETE_PAGE = """
+            select id, listener_id, event_type, serialized_event, publication_date
+              from event_publication
+             where completion_date is null
+               and publication_date < ?
+               and (publication_date > ? or (publication_date = ? and id > ?))
+             order by publication_date, id
+             limit ?
+            """;
+    
+    private static final ThreadLocal<PageWindow> PAGE_WINDOW = new ThreadLocal<>();
+    
+    private final EventPublicationRepository delegate;
+    private final EventSerializer serializer;
+    private final JdbcTemplate jdbcTemplate;
+    private final EventPublicationCompleter completer;
+    private final ConcurrentHashMap<Key, Registration> registrations = new ConcurrentHashMap<>();
+    private final Counter fallbackCompletions;
+    private volatile boolean running;
+    
+    public TunedEventPublicationRepository(@Qualifier("jpaEventPublicationRepository")
+                                           EventPublicationRepository delegate,
+                                           EventSerializer serializer,
+                                           JdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           EventRegistryProperties properties,
+                                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.serializer = serializer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.completer = new EventPublicationCompleter(jdbcTemplate, transactionManager,
+                properties.completion(), meterRegistry);
+        this.fallbackCompletions = Counter.builder("app.events.registry.completions")
+                .tag("path", "fallback")
+                .register(meterRegistry);
+        Gauge.builder("app.events.registry.pending-completions", completer, EventPublicationCompleter::pending)
+                .description("反映待ちの完了の件数")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() {
+        completer.start();
+        running = true;
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        completer.stop();
+    }
+    
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        TargetEventPublication created = delegate.create(publication);
+        registrations.put(new Key(created.getEvent(), created.getTargetIdentifier().getValue()),
+                new Registration(created.getIdentifier(), created.getPublicationDate()));
+        return created;
+    }
+    
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        Registration registration = registrations.remove(new Key(event, identifier.getValue()));
+        if (registration != null && running) {
+            completer.complete(registration.publicationId(), completionDate);
+            return;
+        }
+        // 登録時のIDが分からない（ロールバック済み・再起動後など）場合は既定の実装で反映する
+        fallbackCompletions.increment();
+        delegate.markCompleted(event, identifier, completionDate);
+    }
+    
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        PageWindow window = PAGE_WINDOW.get();
+        if (window == null) {
+            return delegate.findIncompletePublications();
+        }
+        return findIncompletePage(window, Instant.now());
+    }
+    
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        PageWindow window = PAGE_WINDOW.get();
+        if (window == null) {
+            return delegate.findIncompletePublicationsPublishedBefore(instant);
+        }
+        return findIncompletePage(window, instant);
+    }
+    
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(
+            Object event, PublicationTargetIdentifier identifier) {
+        return delegate.findIncompletePublicationsByEventAndTargetIdentifier(event, identifier);
+    }
+    
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        delegate.deletePublications(identifiers);
+    }
+    
+    @Override
+    public void deleteCompletedPublications() {
+        delegate.deleteCompletedPublications();
+    }
+    
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        delegate.deleteCompletedPublicationsBefore(instant);
+    }
+    
+    /**
+     * 指定した時刻より前に登録され、完了していない登録のIDの記録を捨てる
+     * リスナーが失敗し続けた登録の記録が溜まり続けないようにする（完了時は既定の実装で反映される）
+     */
+    void evictRegistrationsBefore(Instant instant) {
+        registrations.values().removeIf(registration -> registration.publishedAt().isBefore(instant));
+    }
+    
+    /**
+     * 呼び出し中のスレッドで未完了の登録を読み込む範囲をページに限定してactionを実行する
+     * IncompleteEventPublicationsの再送は登録簿から未完了の登録を一度に読み込むため、その読み込みをページに置き換える
+     */
+    void withPage(PageWindow window, Runnable action) {
+        PAGE_WINDOW.set(window);
+        try {
+            action.run();
+        } finally {
+            PAGE_WINDOW.remove();
+        }
+    }
+    
+    private List<TargetEventPublication> findIncompletePage(PageWindow window, Instant publishedBefore) {
+        RowMapper<TargetEventPublication> mapper = (rs, rowNum) -> {
+            UUID id = rs.getObject("id", UUID.class);
+            String listenerId = rs.getString("listener_id");
+            Instant publishedAt = rs.getTimestamp("publication_date").toInstant();
+            Object event = serializer.deserialize(rs.getString("serialized_event"),
+                    loadEventType(rs.getString("event_type")));
+            // 再送したリスナーの完了を主キー指定で反映できるよう、行のIDを記録しておく
+            registrations.put(new Key(event, listenerId), new Registration(id, publishedAt));
+            window.last = new PageWindow.Position(publishedAt, id);
+            window.read++;
+            return TargetEventPublication.of(event, PublicationTargetIdentifier.of(listenerId), publishedAt);
+        };
+        
+        if (window.after == null) {
+            return jdbcTemplate.query(SELECT_FIRST_INCOMPLETE_PAGE, mapper,
+                    Timestamp.from(publishedBefore), window.size);
+        }
+        Timestamp afterDate = Timestamp.from(window.after.publishedAt());
+        return jdbcTemplate.query(SELECT_NEXT_INCOMPLETE_PAGE, mapper,
+                Timestamp.from(publishedBefore), afterDate, afterDate, window.after.publicationId(), window.size);
+    }
+    
+    private static Class<?> loadEventType(String eventType) {
+        try {
+            return ClassUtils.forName(eventType, TunedEventPublicationRepository.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("イベントの型を読み込めません: " + eventType, e);
+        }
+    }
+    
+    /**
+     * 未完了の登録を読み込むページ（発行日時とIDの組によるキーセット）
+     */
+    static final class PageWindow {
+        
+        private final Position after;
+        private final int size;
+        private Position last;
+        private int read;
+        
+        PageWindow(Position after, int size) {
+            this.after = after;
+            this.size = size;
+        }
+        
+        /** 最後に読み込んだ登録の位置（読み込んだものがなければnull） */
+        Position last() {
+            return last;
+        }
+        
+        int read() {
+            return read;
+        }
+        
+        boolean isFull() {
+            return read >= size;
+        }
+        
+        record Position(Instant publishedAt, UUID publicationId) {}
+    }
+    
+    private record Key(Object event, String listenerId) {}
+    
+    private record Registration(UUID publicationId, Instant publishedAt) {}
+}
@@ -0,0 +1,195 @@
+package com.example.shared.journal;
+
+import com.example.shared.codec.BinaryRecordCodec;
+import com.example.shared.codec.IncompatibleRecordException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * モジュールイベントの追記型ジャーナル
+ * イベントのrecordをBinaryRecordCodecでバイナリにし、メモリマップしたセグメントに追記する。
+ * 各レコードには型のID（2バイト）と記録時刻を付ける。型のIDとクラス名の対応はディレクトリ内のtypesファイルに保存する。
+ * 記録したイベントは任意のオフセットからページ単位で読み込める（/api/events/journal）。
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.events.journal", name = "enabled", havingValue = "true")
+@Slf4j
+public class EventJournal {
+    
+    private static final String TYPES_FILE = "types";
+    // 大きなlimitを指定されても、一度に確保するリストの初期容量はこの件数までにする
+    private static final int MAX_INITIAL_PAGE_CAPACITY = 1000;
+    
+    private final EventJournalProperties properties;
+    private final Map<Class<?>, Short> typeIds = new ConcurrentHashMap<>();
+    private final List<Class<?>> types = new CopyOnWriteArrayList<>();
+    private final ReentrantLock typeLock = new ReentrantLock();
+    private final Counter appended;
+    private final MeterRegistry meterRegistry;
+    private SegmentedEventLog eventLog;
+    private Thread flusher;
+    
+    public EventJournal(EventJournalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.appended = Counter.builder("app.events.journal.appended")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void open() throws IOException {
+        eventLog = SegmentedEventLog.open(properties.directory(), properties.segmentSize(), properties.maxSegments());
+        loadTypes();
+        Gauge.builder("app.events.journal.end-offset", eventLog, SegmentedEventLog::endOffset)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (properties.forceIntervalMs() > 0) {
+            flusher = Thread.ofVirtual().name("event-journal-flusher").start(this::runForceLoop);
+        }
+    }
+    
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join();
+        }
+        eventLog.close();
+    }
+    
+    /**
+     * イベントを追記し、そのオフセットを返す
+     */
+    public long append(Record event) {
+        byte[] body = BinaryRecordCodec.standard().encode(event);
+        ByteBuffer payload = ByteBuffer.allocate(Short.BYTES + Long.BYTES + body.length)
+                .putShort(typeId(event.getClass()))
+                .putLong(Instant.now().toEpochMilli())
+                .put(body);
+        try {
+            long offset = eventLog.append(payload.array());
+            if (properties.forceIntervalMs() == 0) {
+                eventLog.force();
+            }
+            appended.increment();
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("イベントのジャーナルに追記できません", e);
+        }
+    }
+    
+    /**
+     * fromOffsetから最大limit件のイベントを読み込む
+     */
+    public JournalPage read(long fromOffset, int limit) {
+        List<JournalEntry> entries = new ArrayList<>(Math.min(limit, MAX_INITIAL_PAGE_CAPACITY));
+        long next = eventLog.read(fromOffset, limit, (offset, payload) -> entries.add(decode(offset, payload)));
+        return new JournalPage(entries, next, eventLog.endOffset());
+    }
+    
+    public long startOffset() {
+        return eventLog.startOffset();
+    }
+    
+    public long endOffset() {
+        return eventLog.endOffset();
+    }
+    
+    /**
+     * @throws IncompatibleRecordException 記録時とイベントの定義が対応しない場合
+     */
+    private JournalEntry decode(long offset, ByteBuffer payload) {
+        int typeId = Short.toUnsignedInt(payload.getShort());
+        if (typeId >= types.size()) {
+            throw new IncompatibleRecordException("typesファイルにない型のIDです: " + typeId + "（オフセット: " + offset + "）");
+        }
+        Class<? extends Record> type = types.get(typeId).asSubclass(Record.class);
+        Instant recordedAt = Instant.ofEpochMilli(payload.getLong());
+        Record event = BinaryRecordCodec.standard().decode(payload, type);
+        return new JournalEntry(offset, recordedAt, event);
+    }
+    
+    private short typeId(Class<?> type) {
+        Short id = typeIds.get(type);
+        return id != null ? id : registerType(type);
+    }
+    
+    /**
+     * 新しい型にIDを割り当て、typesファイルに追記する（ディスクへ反映してからIDを使う）
+     */
+    private short registerType(Class<?> type) {
+        // ファイルへの書き込み中にVirtual Threadがピン留めされないよう、synchronizedではなくロックを使う
+        typeLock.lock();
+        try {
+            Short existing = typeIds.get(type);
+            if (existing != null) {
+                return existing;
+            }
+            short id = (short) types.size();
+            Files.writeString(typesPath(), id + "\t" + type.getName() + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            types.add(type);
+            typeIds.put(type, id);
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException("イベントの型を登録できません: " + type.getName(), e);
+        } finally {
+            typeLock.unlock();
+        }
+    }
+    
+    private void loadTypes() throws IOException {
+        Path path = typesPath();
+        if (!Files.exists(path)) {
+            return;
+        }
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", 2);
+            Class<?> type;
+            try {
+                type = ClassUtils.forName(fields[1], EventJournal.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("ジャーナルに記録されたイベントの型を読み込めません: " + fields[1], e);
+            }
+            types.add(type);
+            typeIds.put(type, Short.parseShort(fields[0]));
+        }
+    }
+    
+    private Path typesPath() {
+        return properties.directory().resolve(TYPES_FILE);
+    }
+    
+    private void runForceLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(properties.forceIntervalMs());
+            } catch (InterruptedException e) {
+                return;
+            }
+            eventLog.force();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.shared.journal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * @param enabled コミット済みのモジュールイベントをジャーナルに記録するか
+ * @param directory セグメントファイルを置くディレクトリ
+ * @param segmentSize 1セグメントの大きさ（メモリマップする単位）
+ * @param maxSegments 保持するセグメントの数（超えたら古いものから削除する）
+ * @param forceIntervalMs 書き込んだ内容をディスクへ反映する間隔（0の場合は追記のたびに反映する）
+ * @param basePackage 記録するイベントのパッケージ
+ */
+@ConfigurationProperties(prefix = "app.events.journal")
+public record EventJournalProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/event-journal") Path directory,
+    @DefaultValue("67108864") int segmentSize,
+    @DefaultValue("8") int maxSegments,
+    @DefaultValue("100") long forceIntervalMs,
+    @DefaultValue("com.example") String basePackage
+) {
+}
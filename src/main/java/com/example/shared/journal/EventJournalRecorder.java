@@ -0,0 +1,50 @@
+package com.example.shared.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 発行されたモジュールイベントを、発行したトランザクションのコミット後にジャーナルへ記録する
+ * @TransactionalEventListenerにするとSpring Modulithがリスナーごとにイベント登録簿へ書き込むため、
+ * 通常の@EventListenerでコミットを待つ
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.events.journal", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EventJournalRecorder {
+    
+    private final EventJournal journal;
+    private final EventJournalProperties properties;
+    
+    @EventListener
+    public void onEvent(Object event) {
+        if (!(event instanceof Record record) || !event.getClass().getPackageName().startsWith(properties.basePackage())) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(record);
+            }
+        });
+    }
+    
+    private void append(Record event) {
+        try {
+            journal.append(event);
+        } catch (RuntimeException e) {
+            // ジャーナルへの記録の失敗でイベントの処理を止めない
+            log.error("イベントをジャーナルに記録できませんでした: {}", event.getClass().getSimpleName(), e);
+        }
+    }
+}
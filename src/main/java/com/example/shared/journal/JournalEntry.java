@@ -0,0 +1,16 @@
+package com.example.shared.journal;
+
+import java.time.Instant;
+
+/**
+ * ジャーナルから読み込んだイベント
+ *
+ * @param offset ジャーナル上の位置（この値からの再生で、このイベントから読み込める）
+ * @param recordedAt ジャーナルに記録した時刻
+ */
+public record JournalEntry(
+    long offset,
+    Instant recordedAt,
+    Object event
+) {
+}
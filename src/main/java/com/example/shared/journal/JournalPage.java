@@ -0,0 +1,14 @@
+package com.example.shared.journal;
+
+import java.util.List;
+
+/**
+ * @param nextOffset 続きを読み込むときに指定するオフセット
+ * @param endOffset 読み込んだ時点のジャーナルの末尾
+ */
+public record JournalPage(
+    List<JournalEntry> entries,
+    long nextOffset,
+    long endOffset
+) {
+}
@@ -0,0 +1,247 @@
+package com.example.shared.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 固定長のセグメントファイルをメモリマップして追記するログ
+ * レコードは[長さ(int)][CRC32C(int)][本体]の形式で書き込み、ログ全体を通したバイト位置（オフセット）で参照する。
+ * セグメントのファイル名は先頭のオフセットで、オフセットからセグメントと位置を計算できる。
+ * 収まらないレコードはセグメントの末尾に終端（長さ-1）を書いて次のセグメントへ書き込む。
+ * 起動時は最後のセグメントをCRCで検証しながら読み、書きかけのレコードの手前から追記を再開する。
+ */
+@Slf4j
+class SegmentedEventLog implements Closeable {
+    
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SUFFIX = ".seg";
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final Map<Long, FileChannel> channels = new ConcurrentHashMap<>();
+    private MappedByteBuffer active;
+    private long activeBase;
+    private int position;
+    private volatile long endOffset;
+    
+    private SegmentedEventLog(Path directory, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+    
+    static SegmentedEventLog open(Path directory, int segmentSize, int maxSegments) throws IOException {
+        Files.createDirectories(directory);
+        SegmentedEventLog log = new SegmentedEventLog(directory, segmentSize, maxSegments);
+        List<Long> bases;
+        try (Stream<Path> files = Files.list(directory)) {
+            bases = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+        for (long base : bases) {
+            log.segments.put(base, log.map(base));
+        }
+        if (bases.isEmpty()) {
+            log.activate(0L);
+        } else {
+            log.recover(bases.get(bases.size() - 1));
+        }
+        return log;
+    }
+    
+    /**
+     * レコードを追記し、そのオフセットを返す
+     */
+    long append(byte[] payload) throws IOException {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentSize) {
+            throw new IllegalArgumentException("レコードがセグメントより大きいです: " + payload.length + "バイト");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        
+        appendLock.lock();
+        try {
+            if (position + recordBytes > segmentSize) {
+                roll();
+            }
+            long offset = activeBase + position;
+            active.putInt(position + Integer.BYTES, (int) crc.getValue());
+            active.put(position + HEADER_BYTES, payload);
+            // 長さは最後に書き込み、読み込み側が書きかけの本体を読まないようにする
+            active.putInt(position, payload.length);
+            position += recordBytes;
+            endOffset = activeBase + position;
+            return offset;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    /**
+     * fromOffsetから最大maxRecords件のレコードを読み込み、次に読み込むオフセットを返す
+     * 保持期間を過ぎて削除されたオフセットを指定した場合は、残っている最も古いレコードから読み込む
+     * レコードの先頭ではないオフセットを指定した場合はIllegalArgumentException
+     */
+    long read(long fromOffset, int maxRecords, RecordVisitor visitor) {
+        long end = endOffset;
+        long offset = Math.max(fromOffset, startOffset());
+        int read = 0;
+        while (read < maxRecords && offset < end) {
+            long base = segmentBase(offset);
+            MappedByteBuffer segment = segments.get(base);
+            if (segment == null) {
+                // 読み込み中に削除されたセグメントは読み飛ばす
+                offset = base + segmentSize;
+                continue;
+            }
+            int segmentPosition = (int) (offset - base);
+            int length = segmentPosition + Integer.BYTES > segmentSize ? END_OF_SEGMENT : segment.getInt(segmentPosition);
+            if (length == END_OF_SEGMENT) {
+                offset = base + segmentSize;
+                continue;
+            }
+            if (length <= 0 || segmentPosition + HEADER_BYTES + length > segmentSize) {
+                throw new IllegalArgumentException("レコードの先頭ではないオフセットです: " + offset);
+            }
+            ByteBuffer payload = segment.slice(segmentPosition + HEADER_BYTES, length);
+            visitor.visit(offset, payload);
+            offset += HEADER_BYTES + length;
+            read++;
+        }
+        return offset;
+    }
+    
+    long startOffset() {
+        Long first = segments.isEmpty() ? null : segments.firstKey();
+        return first == null ? 0L : first;
+    }
+    
+    long endOffset() {
+        return endOffset;
+    }
+    
+    /**
+     * 書き込み済みの内容をディスクに反映する
+     */
+    void force() {
+        MappedByteBuffer current = active;
+        current.force();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            active.force();
+            for (FileChannel channel : channels.values()) {
+                channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    private void roll() throws IOException {
+        if (position + Integer.BYTES <= segmentSize) {
+            active.putInt(position, END_OF_SEGMENT);
+        }
+        active.force();
+        activate(activeBase + segmentSize);
+        
+        while (segments.size() > maxSegments) {
+            Map.Entry<Long, MappedByteBuffer> oldest = segments.pollFirstEntry();
+            FileChannel channel = channels.remove(oldest.getKey());
+            channel.close();
+            Files.deleteIfExists(segmentPath(oldest.getKey()));
+        }
+    }
+    
+    private void activate(long base) throws IOException {
+        MappedByteBuffer segment = map(base);
+        segments.put(base, segment);
+        active = segment;
+        activeBase = base;
+        position = 0;
+        endOffset = base;
+    }
+    
+    /**
+     * 最後のセグメントのレコードをCRCで検証し、最後の正しいレコードの直後を追記位置にする
+     */
+    private void recover(long base) {
+        MappedByteBuffer segment = segments.get(base);
+        int recovered = 0;
+        int pos = 0;
+        while (pos + HEADER_BYTES <= segmentSize) {
+            int length = segment.getInt(pos);
+            if (length == END_OF_SEGMENT) {
+                pos = segmentSize;
+                break;
+            }
+            if (length <= 0 || pos + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(segment.slice(pos + HEADER_BYTES, length));
+            if ((int) crc.getValue() != segment.getInt(pos + Integer.BYTES)) {
+                log.warn("イベントのジャーナルの破損したレコードを検出しました: オフセット={}", base + pos);
+                break;
+            }
+            pos += HEADER_BYTES + length;
+            recovered++;
+        }
+        // 書きかけだった部分を消し、後から追記したレコードの後ろに古い内容が残らないようにする
+        for (int i = pos; i < Math.min(pos + HEADER_BYTES, segmentSize); i++) {
+            segment.put(i, (byte) 0);
+        }
+        active = segment;
+        activeBase = base;
+        position = pos;
+        endOffset = base + pos;
+        log.info("イベントのジャーナルを開きました: 開始オフセット={}, 終了オフセット={}, 最後のセグメントのレコード数={}",
+                startOffset(), endOffset, recovered);
+    }
+    
+    private MappedByteBuffer map(long base) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(base),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channels.put(base, channel);
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    
+    private long segmentBase(long offset) {
+        return offset - Math.floorMod(offset, segmentSize);
+    }
+    
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+    
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(long offset, ByteBuffer payload);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.shared.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 実行中の負荷テストの進捗
+ * 各リクエストの完了はロックなしで記録し、tick()のたびに直近の期間（rolling window）の
+ * スループットとp99を求める（tick()は定期的な集計とジョブの終了時に呼ばれるため排他する）。
+ */
+public class JobProgress {
+    
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final LinkedList<Interval> intervals = new LinkedList<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long planned;
+    private volatile Snapshot snapshot = new Snapshot(0, 0, 0, 0.0, 0.0, 0);
+    
+    /**
+     * @param planned 予定しているリクエストの総数（クローズドループなど事前に決まらない場合は0）
+     */
+    public void setPlanned(long planned) {
+        this.planned = planned;
+    }
+    
+    public void record(boolean success, long latencyNanos) {
+        (success ? succeeded : failed).increment();
+        recorder.recordValue(Math.max(latencyNanos, 0));
+    }
+    
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+    
+    synchronized Snapshot tick(Duration rollingWindow) {
+        long now = System.nanoTime();
+        long finished = succeeded.sum() + failed.sum();
+        intervals.addLast(new Interval(now, finished, recorder.getIntervalHistogram()));
+        // 期間の始点を求めるため、期間より古い区間を1つだけ残す
+        while (intervals.size() > 2 && now - intervals.get(1).endNanos() >= rollingWindow.toNanos()) {
+            intervals.removeFirst();
+        }
+        
+        Interval oldest = intervals.getFirst();
+        Histogram window = new Histogram(SIGNIFICANT_DIGITS);
+        intervals.stream().skip(intervals.size() > 1 ? 1 : 0).forEach(interval -> window.add(interval.histogram()));
+        double seconds = intervals.size() > 1
+                ? (now - oldest.endNanos()) / 1_000_000_000.0
+                : (now - startNanos) / 1_000_000_000.0;
+        long windowCount = intervals.size() > 1 ? finished - oldest.finished() : finished;
+        
+        snapshot = new Snapshot(
+                succeeded.sum(),
+                failed.sum(),
+                planned,
+                seconds > 0 ? windowCount / seconds : 0.0,
+                window.getTotalCount() > 0 ? window.getValueAtPercentile(99.0) / NANOS_PER_MILLI : 0.0,
+                Duration.ofNanos(now - startNanos).toMillis());
+        return snapshot;
+    }
+    
+    private record Interval(long endNanos, long finished, Histogram histogram) {}
+    
+    /**
+     * @param planned 予定しているリクエストの総数（不明な場合は0）
+     * @param throughput 直近の期間のスループット（req/sec）
+     * @param rollingP99Ms 直近の期間に完了したリクエストのレイテンシのp99
+     */
+    public record Snapshot(
+        long succeeded,
+        long failed,
+        long planned,
+        double throughput,
+        double rollingP99Ms,
+        long elapsedMs
+    ) {}
+}
@@ -0,0 +1,218 @@
+package com.example.shared.loadgen;
+
+import com.example.shared.metrics.LatencyRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link LoadProfile}に従ってタスクを繰り返し実行し、段階ごとのスループットとレイテンシを集計する
+ * 全件を一斉に投入する方式と異なり、OPENでは各リクエストのレイテンシを予定時刻から計測するため、
+ * システムが詰まって投入が遅れた分も応答時間に含まれる（coordinated omissionの補正）。
+ * 各リクエストはVirtual Thread上で実行する。呼び出し元のスレッドが割り込まれると投入を止め、処理中のタスクも中断する。
+ */
+@Component
+@Slf4j
+public class LoadGenerator {
+    
+    private static final long INACTIVE_POLL_NANOS = Duration.ofMillis(10).toNanos();
+    
+    @FunctionalInterface
+    public interface LoadTask {
+        void run() throws Exception;
+    }
+    
+    public LoadReport run(LoadProfile profile, LoadTask task) {
+        return run(profile, new JobProgress(), task);
+    }
+    
+    /**
+     * 負荷を生成し、リクエストの完了ごとに進捗へ記録する
+     * 開ループでは予定リクエスト数を進捗に設定する（閉ループは件数が事前に決まらないため設定しない）
+     */
+    public LoadReport run(LoadProfile profile, JobProgress progress, LoadTask task) {
+        if (profile.mode() == LoadProfile.Mode.OPEN) {
+            progress.setPlanned(profile.plannedArrivals());
+        }
+        Map<LoadPhase, PhaseStats> phases = new EnumMap<>(LoadPhase.class);
+        for (LoadPhase phase : LoadPhase.values()) {
+            phases.put(phase, new PhaseStats());
+        }
+        PhaseStats total = new PhaseStats();
+        Run run = new Run(profile, task, progress, phases, total, System.nanoTime());
+        
+        boolean cancelled = false;
+        boolean interrupted;
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("load-gen-vt-", 0).factory());
+        try {
+            if (profile.mode() == LoadProfile.Mode.OPEN) {
+                cancelled = !run.dispatchOpenLoop(executor);
+            } else {
+                run.startClosedLoop(executor);
+            }
+        } finally {
+            // 割り込まれた場合、close()は処理中のタスクを中断してから戻る
+            executor.close();
+            // 割り込み状態のままだと結果の組み立て中のクラスロードなどが失敗するため、一旦解除して最後に戻す
+            interrupted = Thread.interrupted();
+            cancelled |= interrupted;
+        }
+        
+        long elapsedNanos = System.nanoTime() - run.startNanos();
+        List<LoadReport.PhaseReport> phaseReports = new ArrayList<>();
+        for (LoadPhase phase : LoadPhase.values()) {
+            Duration duration = profile.duration(phase);
+            if (!duration.isZero()) {
+                phaseReports.add(phases.get(phase).report(phase, duration.toNanos()));
+            }
+        }
+        LoadReport report = new LoadReport(profile.mode(), Duration.ofNanos(elapsedNanos).toMillis(), cancelled,
+                total.report(null, elapsedNanos), phaseReports);
+        log.info("負荷の生成が完了しました: 方式={}, 成功={}, 失敗={}, 投入見送り={}, 経過時間={}ms{}",
+                profile.mode(), report.total().succeeded(), report.total().failed(), report.total().dropped(),
+                report.elapsedMs(), cancelled ? "（中断）" : "");
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return report;
+    }
+    
+    private record Run(LoadProfile profile, LoadTask task, JobProgress progress, Map<LoadPhase, PhaseStats> phases,
+                       PhaseStats total, long startNanos) {
+        
+        /**
+         * 予定時刻になったリクエストを順に投入する（投入は処理の完了を待たない）
+         *
+         * @return 最後まで投入した場合はtrue（割り込まれた場合はfalse）
+         */
+        boolean dispatchOpenLoop(ExecutorService executor) {
+            AtomicInteger inFlight = new AtomicInteger();
+            long arrivals = profile.plannedArrivals();
+            for (long k = 0; k < arrivals; k++) {
+                long intendedNanos = startNanos + profile.arrivalOffsetNanos(k);
+                if (!parkUntil(intendedNanos)) {
+                    return false;
+                }
+                PhaseStats phase = phases.get(profile.phaseAt(intendedNanos - startNanos));
+                if (inFlight.get() >= profile.maxInFlight()) {
+                    phase.dropped.increment();
+                    total.dropped.increment();
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            execute(intendedNanos, phase);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.decrementAndGet();
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * 仮想ユーザーを同時実行数の上限だけ起動する
+         * i番目のユーザーは、その時点の目標の同時実行数がiを超えている間だけリクエストを投入する
+         */
+        void startClosedLoop(ExecutorService executor) {
+            long endNanos = startNanos + profile.total().toNanos();
+            for (int i = 0; i < profile.concurrency(); i++) {
+                int user = i;
+                executor.execute(() -> runVirtualUser(user, endNanos));
+            }
+        }
+        
+        private void runVirtualUser(int user, long endNanos) {
+            long thinkNanos = profile.thinkTime().toNanos();
+            while (!Thread.currentThread().isInterrupted()) {
+                long now = System.nanoTime();
+                if (now >= endNanos) {
+                    return;
+                }
+                long offset = now - startNanos;
+                if (user >= profile.levelAt(offset) * profile.concurrency()) {
+                    LockSupport.parkNanos(INACTIVE_POLL_NANOS);
+                    continue;
+                }
+                execute(now, phases.get(profile.phaseAt(offset)));
+                if (thinkNanos > 0 && !parkUntil(System.nanoTime() + thinkNanos)) {
+                    return;
+                }
+            }
+        }
+        
+        private void execute(long intendedNanos, PhaseStats phase) {
+            long actualStartNanos = System.nanoTime();
+            boolean succeeded;
+            try {
+                task.run();
+                succeeded = true;
+            } catch (Exception e) {
+                succeeded = false;
+            }
+            long endNanos = System.nanoTime();
+            phase.record(succeeded, endNanos - intendedNanos, endNanos - actualStartNanos);
+            total.record(succeeded, endNanos - intendedNanos, endNanos - actualStartNanos);
+            progress.record(succeeded, endNanos - intendedNanos);
+        }
+        
+        /**
+         * @return 指定時刻まで待機できた場合はtrue（割り込まれた場合はfalse）
+         */
+        private static boolean parkUntil(long deadlineNanos) {
+            long remaining;
+            while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+            }
+            return !Thread.currentThread().isInterrupted();
+        }
+    }
+    
+    private static final class PhaseStats {
+        
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LatencyRecorder latency = new LatencyRecorder();
+        private final LatencyRecorder serviceTime = new LatencyRecorder();
+        
+        void record(boolean success, long latencyNanos, long serviceTimeNanos) {
+            (success ? succeeded : failed).increment();
+            latency.recordNanos(latencyNanos);
+            serviceTime.recordNanos(serviceTimeNanos);
+        }
+        
+        LoadReport.PhaseReport report(LoadPhase phase, long durationNanos) {
+            double seconds = durationNanos / 1_000_000_000.0;
+            return new LoadReport.PhaseReport(
+                    phase,
+                    Duration.ofNanos(durationNanos).toMillis(),
+                    succeeded.sum(),
+                    failed.sum(),
+                    dropped.sum(),
+                    seconds > 0 ? succeeded.sum() / seconds : 0.0,
+                    latency.summary(),
+                    serviceTime.summary());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.shared.loadgen;
+
+/**
+ * 負荷の段階（目標の到着率・同時実行数まで増やす / 維持する / 0まで減らす）
+ */
+public enum LoadPhase {
+    RAMP_UP, STEADY, RAMP_DOWN
+}
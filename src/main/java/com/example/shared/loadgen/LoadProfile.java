@@ -0,0 +1,115 @@
+package com.example.shared.loadgen;
+
+import java.time.Duration;
+
+/**
+ * 負荷の掛け方
+ * OPEN（オープンループ）はシステムの応答に関係なく、到着率に従った予定時刻にリクエストを投入する。
+ * CLOSED（クローズドループ）は同時実行数だけの仮想ユーザーが、応答を受け取ってから（thinkTime後に）次のリクエストを投入する。
+ * どちらもRAMP_UPで目標値まで線形に増やし、STEADYで維持し、RAMP_DOWNで0まで線形に減らす。
+ *
+ * @param targetRate OPENのSTEADYでの到着率（req/sec）
+ * @param concurrency CLOSEDのSTEADYでの同時実行数（仮想ユーザー数）
+ * @param maxInFlight OPENで同時に処理中にできる上限（超えた到着は投入せずdroppedとして数える）
+ * @param thinkTime CLOSEDで応答を受け取ってから次のリクエストを投入するまでの間隔
+ */
+public record LoadProfile(
+    Mode mode,
+    double targetRate,
+    int concurrency,
+    Duration rampUp,
+    Duration steady,
+    Duration rampDown,
+    int maxInFlight,
+    Duration thinkTime
+) {
+    
+    public enum Mode {
+        OPEN, CLOSED
+    }
+    
+    public LoadProfile {
+        if (rampUp.isNegative() || steady.isNegative() || rampDown.isNegative()) {
+            throw new IllegalArgumentException("Phase durations must not be negative");
+        }
+        if (mode == Mode.OPEN && (targetRate <= 0 || maxInFlight <= 0)) {
+            throw new IllegalArgumentException("Open-loop load requires a positive targetRate and maxInFlight");
+        }
+        if (mode == Mode.CLOSED && concurrency <= 0) {
+            throw new IllegalArgumentException("Closed-loop load requires a positive concurrency");
+        }
+    }
+    
+    public Duration total() {
+        return rampUp.plus(steady).plus(rampDown);
+    }
+    
+    public Duration duration(LoadPhase phase) {
+        return switch (phase) {
+            case RAMP_UP -> rampUp;
+            case STEADY -> steady;
+            case RAMP_DOWN -> rampDown;
+        };
+    }
+    
+    public LoadPhase phaseAt(long offsetNanos) {
+        if (offsetNanos < rampUp.toNanos()) {
+            return LoadPhase.RAMP_UP;
+        }
+        if (offsetNanos < rampUp.toNanos() + steady.toNanos()) {
+            return LoadPhase.STEADY;
+        }
+        return LoadPhase.RAMP_DOWN;
+    }
+    
+    /**
+     * 開始からの経過時間における、目標値（到着率・同時実行数）に対する割合（0.0〜1.0）
+     */
+    public double levelAt(long offsetNanos) {
+        long up = rampUp.toNanos();
+        long steadyEnd = up + steady.toNanos();
+        if (offsetNanos < up) {
+            return (double) offsetNanos / up;
+        }
+        if (offsetNanos < steadyEnd) {
+            return 1.0;
+        }
+        long down = rampDown.toNanos();
+        return down == 0 ? 0.0 : Math.max(0.0, 1.0 - (double) (offsetNanos - steadyEnd) / down);
+    }
+    
+    /**
+     * OPENで投入するリクエストの総数（到着率を時間で積分した値）
+     */
+    public long plannedArrivals() {
+        return (long) (targetRate * (seconds(rampUp) / 2 + seconds(steady) + seconds(rampDown) / 2));
+    }
+    
+    /**
+     * OPENでk番目（0始まり）のリクエストを投入する予定時刻（開始からの経過時間）
+     * 到着数の累積N(t)の逆関数で求める（RAMP_UP: N=r·t²/2U、STEADY: 線形、RAMP_DOWN: N=r·(t-t²/2D)）
+     */
+    public long arrivalOffsetNanos(long k) {
+        double up = seconds(rampUp);
+        double steadySeconds = seconds(steady);
+        double down = seconds(rampDown);
+        double rampUpArrivals = targetRate * up / 2;
+        double steadyArrivals = targetRate * steadySeconds;
+        
+        double offsetSeconds;
+        if (k < rampUpArrivals) {
+            offsetSeconds = Math.sqrt(2 * up * k / targetRate);
+        } else if (k < rampUpArrivals + steadyArrivals) {
+            offsetSeconds = up + (k - rampUpArrivals) / targetRate;
+        } else {
+            double remaining = k - rampUpArrivals - steadyArrivals;
+            double fraction = Math.max(0.0, 1 - 2 * remaining / (targetRate * down));
+            offsetSeconds = up + steadySeconds + down * (1 - Math.sqrt(fraction));
+        }
+        return (long) (offsetSeconds * 1_000_000_000L);
+    }
+    
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1_000_000_000.0;
+    }
+}
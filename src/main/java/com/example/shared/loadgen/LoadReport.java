@@ -0,0 +1,35 @@
+package com.example.shared.loadgen;
+
+import com.example.shared.metrics.LatencySummary;
+
+import java.util.List;
+
+/**
+ * 負荷テストの結果（全体と段階ごと）
+ * latencyは予定時刻（OPEN）・投入時刻（CLOSED）から完了までの時間で、serviceTimeは実際に処理を始めてから完了までの時間。
+ * OPENで両者の差が大きい場合は、投入側の待ち（スレッドの不足や処理中の上限）が応答時間に含まれていることを示す。
+ * リクエストは予定時刻（投入時刻）の属する段階に集計する。
+ */
+public record LoadReport(
+    LoadProfile.Mode mode,
+    long elapsedMs,
+    boolean cancelled,
+    PhaseReport total,
+    List<PhaseReport> phases
+) {
+    
+    /**
+     * @param phase 段階（全体の集計ではnull）
+     * @param throughput 成功したリクエスト数 / 段階の長さ（req/sec）
+     */
+    public record PhaseReport(
+        LoadPhase phase,
+        long durationMs,
+        long succeeded,
+        long failed,
+        long dropped,
+        double throughput,
+        LatencySummary latency,
+        LatencySummary serviceTime
+    ) {}
+}
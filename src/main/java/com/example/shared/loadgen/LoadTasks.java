@@ -0,0 +1,50 @@
+package com.example.shared.loadgen;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 負荷テストで一斉に投入したタスクの完了待ち
+ */
+public final class LoadTasks {
+    
+    /**
+     * 中断時に、割り込んだタスクが失敗を記録して終了するのを待つ上限
+     */
+    private static final Duration TERMINATION_TIMEOUT = Duration.ofSeconds(5);
+    
+    private LoadTasks() {
+    }
+    
+    /**
+     * すべてのタスクの完了を待つ
+     * CompletableFuture.join()と異なり割り込みに応答し、割り込まれた場合は実行中のタスクのスレッドにも割り込んで終了を待つ
+     *
+     * @throws CancellationException 待機中に割り込まれた場合（割り込み状態は維持する）
+     */
+    public static void awaitAll(List<? extends CompletableFuture<?>> futures, ExecutorService executor) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            awaitTermination(executor);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Load test was cancelled");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test task failed", e.getCause());
+        }
+    }
+    
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(TERMINATION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // 中断の処理中のため、呼び出し元で割り込み状態を設定し直す
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.shared.loadgen;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * バックグラウンドで実行する負荷テスト1回分
+ * 実行は専用のVirtual Threadで行い、cancel()はそのスレッドに割り込む。
+ * 負荷テスト側は割り込まれたら処理中のタスク（Virtual Thread）も中断して戻る。
+ */
+@Slf4j
+public class LoadTestJob {
+    
+    public enum Status {
+        RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+    
+    /**
+     * 進捗の購読者（SSEの接続など）
+     * onFinishedはジョブの終了後に1回以上呼び出されることがあるため、冪等に実装する
+     */
+    public interface Subscriber {
+        void onProgress(Snapshot snapshot);
+        
+        void onFinished(Snapshot snapshot);
+    }
+    
+    private final UUID id = UUID.randomUUID();
+    private final String kind;
+    private final Instant submittedAt = Instant.now();
+    private final JobProgress progress = new JobProgress();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile boolean cancelRequested;
+    private volatile Instant finishedAt;
+    private volatile Object result;
+    private volatile String error;
+    private volatile Thread thread;
+    
+    LoadTestJob(String kind) {
+        this.kind = kind;
+    }
+    
+    void start(Function<JobProgress, ?> work, Duration rollingWindow) {
+        thread = Thread.ofVirtual().name("load-test-job-" + id).start(() -> {
+            Status terminal = Status.FAILED;
+            try {
+                result = work.apply(progress);
+                terminal = Status.SUCCEEDED;
+            } catch (Throwable e) {
+                // Errorも含めて記録する（捕捉しないとステータスがRUNNINGのまま残る）
+                error = e.toString();
+                if (!(e instanceof Exception)) {
+                    log.error("負荷テストのジョブが異常終了しました: ジョブID={}", id, e);
+                }
+            } finally {
+                status = cancelRequested ? Status.CANCELLED : terminal;
+                // 中断時の割り込み状態が残っているとSSEの送信（ソケットへの書き込み）が失敗するため解除する
+                Thread.interrupted();
+                finishedAt = Instant.now();
+                progress.tick(rollingWindow);
+                Snapshot finished = snapshot();
+                subscribers.forEach(subscriber -> subscriber.onFinished(finished));
+            }
+        });
+    }
+    
+    void publishProgress(Duration rollingWindow) {
+        progress.tick(rollingWindow);
+        Snapshot snapshot = snapshot();
+        subscribers.forEach(subscriber -> subscriber.onProgress(snapshot));
+    }
+    
+    boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        thread.interrupt();
+        return true;
+    }
+    
+    /**
+     * 購読を開始する。既に終了している場合はすぐにonFinishedを呼び出す
+     */
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        if (isFinished()) {
+            subscriber.onFinished(snapshot());
+        }
+    }
+    
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+    
+    public UUID id() {
+        return id;
+    }
+    
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+    
+    Instant finishedAt() {
+        return finishedAt;
+    }
+    
+    public Snapshot snapshot() {
+        return new Snapshot(id, kind, status, submittedAt, finishedAt, progress.snapshot(), result, error);
+    }
+    
+    /**
+     * @param result 負荷テストの結果（終了するまではnull）
+     */
+    public record Snapshot(
+        UUID id,
+        String kind,
+        Status status,
+        Instant submittedAt,
+        Instant finishedAt,
+        JobProgress.Snapshot progress,
+        Object result,
+        String error
+    ) {}
+}
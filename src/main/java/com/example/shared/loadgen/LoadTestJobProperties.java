@@ -0,0 +1,18 @@
+package com.example.shared.loadgen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param progressIntervalMs 進捗を集計して購読者（SSE）へ送る間隔
+ * @param rollingWindow 現在のスループットとp99を求める直近の期間
+ * @param retainedJobs 保持する終了済みのジョブの件数（超えた分は古いものから削除する）
+ */
+@ConfigurationProperties(prefix = "app.load-test.jobs")
+public record LoadTestJobProperties(
+    @DefaultValue("1000") long progressIntervalMs,
+    @DefaultValue("5s") Duration rollingWindow,
+    @DefaultValue("50") int retainedJobs
+) {}
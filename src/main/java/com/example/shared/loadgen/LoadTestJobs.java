@@ -0,0 +1,76 @@
+package com.example.shared.loadgen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 負荷テストのジョブの登録簿
+ * 負荷テストをHTTPリクエストのスレッドから切り離して実行し、進捗をprogress-interval-msごとに購読者へ送る
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestJobs {
+    
+    private final LoadTestJobProperties properties;
+    private final Map<UUID, LoadTestJob> jobs = new ConcurrentHashMap<>();
+    
+    /**
+     * @param kind ジョブの種類（エンドポイントの名前など）
+     * @param work 負荷テストの本体。渡されたJobProgressに各リクエストの完了を記録する
+     */
+    public LoadTestJob submit(String kind, Function<JobProgress, ?> work) {
+        evictFinishedJobs();
+        LoadTestJob job = new LoadTestJob(kind);
+        job.start(work, properties.rollingWindow());
+        jobs.put(job.id(), job);
+        log.info("負荷テストのジョブを開始しました: ジョブID={}, 種類={}", job.id(), kind);
+        return job;
+    }
+    
+    public Optional<LoadTestJob> find(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+    
+    public List<LoadTestJob> all() {
+        return List.copyOf(jobs.values());
+    }
+    
+    /**
+     * @return 実行中のジョブを中断した場合はtrue（見つからない・終了済みの場合はfalse）
+     */
+    public boolean cancel(UUID jobId) {
+        boolean cancelled = find(jobId).map(LoadTestJob::cancel).orElse(false);
+        if (cancelled) {
+            log.info("負荷テストのジョブを中断しました: ジョブID={}", jobId);
+        }
+        return cancelled;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.load-test.jobs.progress-interval-ms:1000}")
+    public void publishProgress() {
+        jobs.values().stream()
+                .filter(job -> !job.isFinished())
+                .forEach(job -> job.publishProgress(properties.rollingWindow()));
+    }
+    
+    private void evictFinishedJobs() {
+        List<LoadTestJob> finished = jobs.values().stream()
+                .filter(LoadTestJob::isFinished)
+                .sorted(Comparator.comparing(LoadTestJob::finishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - properties.retainedJobs() + 1; i++) {
+            jobs.remove(finished.get(i).id());
+        }
+    }
+}
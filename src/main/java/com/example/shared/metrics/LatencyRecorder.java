@@ -0,0 +1,42 @@
+package com.example.shared.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 複数スレッドからロックなしでレイテンシ（ナノ秒）を記録する
+ * HdrHistogramのRecorderは記録側がwait-freeのため、計測対象の並行処理を妨げない
+ */
+public class LatencyRecorder {
+    
+    private static final int SIGNIFICANT_DIGITS = 3;
+    
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram accumulated = new Histogram(SIGNIFICANT_DIGITS);
+    
+    public void recordNanos(long nanos) {
+        recorder.recordValue(Math.max(nanos, 0));
+    }
+    
+    /**
+     * 開始時刻（System.nanoTime）から現在までの経過時間を記録し、現在時刻を返す
+     */
+    public long recordSince(long startNanos) {
+        long now = System.nanoTime();
+        recordNanos(now - startNanos);
+        return now;
+    }
+    
+    /**
+     * これまでに記録された値の要約を返す
+     */
+    public synchronized LatencySummary summary() {
+        accumulated.add(recorder.getIntervalHistogram());
+        return LatencySummary.from(accumulated);
+    }
+    
+    public synchronized void reset() {
+        recorder.reset();
+        accumulated.reset();
+    }
+}
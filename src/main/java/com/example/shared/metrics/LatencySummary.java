@@ -0,0 +1,33 @@
+package com.example.shared.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * レイテンシ分布の要約（単位: ミリ秒）
+ */
+public record LatencySummary(
+    long count,
+    double meanMs,
+    double p50Ms,
+    double p90Ms,
+    double p99Ms,
+    double p999Ms,
+    double maxMs
+) {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    
+    public static LatencySummary from(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return new LatencySummary(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new LatencySummary(
+                histogram.getTotalCount(),
+                histogram.getMean() / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(50.0) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(90.0) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.0) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI
+        );
+    }
+}
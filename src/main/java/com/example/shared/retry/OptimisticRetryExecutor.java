@@ -0,0 +1,105 @@
+package com.example.shared.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 楽観ロックの競合時に、新しいトランザクションで処理をやり直す
+ * 悲観ロック（SELECT ... FOR UPDATE）で行を待たせる代わりに、
+ * 上限付きの指数バックオフ＋フルジッターで再試行する。
+ * 待機はThread.sleepのため、Virtual Thread上ではキャリアスレッドを占有しない。
+ */
+@Component
+@Slf4j
+public class OptimisticRetryExecutor {
+    
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, TransitionMetrics> metrics = new ConcurrentHashMap<>();
+    
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   OptimisticRetryProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 再試行のたびに永続化コンテキストを作り直すため、常に新しいトランザクションで実行する
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * @param transition メトリクスのタグに使う状態遷移名（例: order.confirm）
+     */
+    public <T> T execute(String transition, Supplier<T> action) {
+        TransitionMetrics transitionMetrics = metrics.computeIfAbsent(transition, this::registerMetrics);
+        
+        for (int attempt = 1; ; attempt++) {
+            transitionMetrics.attempts.increment();
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                transitionMetrics.conflicts.increment();
+                if (attempt >= properties.maxAttempts()) {
+                    transitionMetrics.exhausted.increment();
+                    log.warn("楽観ロックの再試行回数が上限に達しました: 遷移={}, 試行回数={}", transition, attempt);
+                    throw e;
+                }
+                transitionMetrics.retries.increment();
+                log.debug("楽観ロックの競合を検出しました。再試行します: 遷移={}, 試行回数={}", transition, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+    
+    public void executeWithoutResult(String transition, Runnable action) {
+        execute(transition, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    private void backoff(int attempt) {
+        long ceiling = Math.min(properties.maxBackoffMs(),
+                properties.initialBackoffMs() << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", e);
+        }
+    }
+    
+    private TransitionMetrics registerMetrics(String transition) {
+        return new TransitionMetrics(
+                counter("app.optimistic.attempts", transition),
+                counter("app.optimistic.conflicts", transition),
+                counter("app.optimistic.retries", transition),
+                counter("app.optimistic.exhausted", transition)
+        );
+    }
+    
+    private Counter counter(String name, String transition) {
+        return Counter.builder(name)
+                .tag("transition", transition)
+                .register(meterRegistry);
+    }
+    
+    private record TransitionMetrics(
+        Counter attempts,
+        Counter conflicts,
+        Counter retries,
+        Counter exhausted
+    ) {}
+}
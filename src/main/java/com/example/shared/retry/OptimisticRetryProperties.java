@@ -0,0 +1,12 @@
+package com.example.shared.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.retry.optimistic")
+public record OptimisticRetryProperties(
+    @DefaultValue("8") int maxAttempts,
+    @DefaultValue("5") long initialBackoffMs,
+    @DefaultValue("200") long maxBackoffMs
+) {
+}
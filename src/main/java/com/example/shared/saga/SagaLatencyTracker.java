@@ -0,0 +1,145 @@
+package com.example.shared.saga;
+
+import com.example.shared.metrics.LatencyRecorder;
+import com.example.shared.metrics.LatencySummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注文サーガのステージごとのレイテンシと、起点から完了までのエンドツーエンドのレイテンシを記録する
+ * ステージごとに「前のイベントの発行からリスナーで処理を開始するまで（lag）」と
+ * 「リスナーでの処理時間（processing）」を分けて記録し、どのモジュールがボトルネックかを切り分けられるようにする
+ * 同じ値をMicrometerのTimer（app.saga.stage / app.saga.end-to-end）にも記録する
+ */
+@Component
+public class SagaLatencyTracker {
+    
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, StageRecorders> stages = new ConcurrentHashMap<>();
+    private final Map<SagaOutcome, TimedRecorder> outcomes = new EnumMap<>(SagaOutcome.class);
+    
+    public SagaLatencyTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (SagaOutcome outcome : SagaOutcome.values()) {
+            outcomes.put(outcome, new TimedRecorder(Timer.builder("app.saga.end-to-end")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)));
+        }
+    }
+    
+    /**
+     * リスナーでの処理開始を記録し、処理時間の計測に使う開始時刻（System.nanoTime）を返す
+     *
+     * @param stage ステージ名（例: inventory.reserve）
+     */
+    public long begin(String stage, SagaTrace trace) {
+        long startNanos = System.nanoTime();
+        if (trace != null) {
+            long lagNanos = Duration.between(trace.publishedAt(), Instant.now()).toNanos();
+            stage(stage).lag.record(lagNanos);
+        }
+        return startNanos;
+    }
+    
+    /**
+     * リスナーでの処理完了を記録する
+     */
+    public void end(String stage, long startNanos) {
+        stage(stage).processing.record(System.nanoTime() - startNanos);
+    }
+    
+    /**
+     * サーガの完了を記録する（起点時刻から現在までをエンドツーエンドのレイテンシとする）
+     */
+    public void complete(SagaTrace trace, SagaOutcome outcome) {
+        if (trace == null) {
+            return;
+        }
+        outcomes.get(outcome).record(Duration.between(trace.originatedAt(), Instant.now()).toNanos());
+    }
+    
+    /**
+     * ステージはlagとprocessingのp99の合計が大きい順に返す
+     */
+    public SagaLatencyReport report() {
+        Map<SagaOutcome, LatencySummary> endToEnd = new EnumMap<>(SagaOutcome.class);
+        outcomes.forEach((outcome, recorder) -> endToEnd.put(outcome, recorder.histogram.summary()));
+        
+        Map<String, StageLatency> stageLatencies = new LinkedHashMap<>();
+        stages.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), new StageLatency(
+                        entry.getValue().lag.histogram.summary(),
+                        entry.getValue().processing.histogram.summary())))
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, StageLatency> entry) -> entry.getValue().totalP99Ms()).reversed())
+                .forEach(entry -> stageLatencies.put(entry.getKey(), entry.getValue()));
+        
+        return new SagaLatencyReport(endToEnd, stageLatencies);
+    }
+    
+    /**
+     * エンドポイントで返す集計値をリセットする（MicrometerのTimerはリセットしない）
+     */
+    public void reset() {
+        outcomes.values().forEach(recorder -> recorder.histogram.reset());
+        stages.values().forEach(recorders -> {
+            recorders.lag.histogram.reset();
+            recorders.processing.histogram.reset();
+        });
+    }
+    
+    private StageRecorders stage(String stage) {
+        return stages.computeIfAbsent(stage, name -> new StageRecorders(
+                new TimedRecorder(stageTimer(name, "lag")),
+                new TimedRecorder(stageTimer(name, "processing"))));
+    }
+    
+    private Timer stageTimer(String stage, String phase) {
+        return Timer.builder("app.saga.stage")
+                .tag("stage", stage)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private record StageRecorders(TimedRecorder lag, TimedRecorder processing) {}
+    
+    private record TimedRecorder(Timer timer, LatencyRecorder histogram) {
+        
+        TimedRecorder(Timer timer) {
+            this(timer, new LatencyRecorder());
+        }
+        
+        void record(long nanos) {
+            // 別ホストの時計のずれで負になる場合は0として扱う
+            long clamped = Math.max(nanos, 0);
+            timer.record(clamped, TimeUnit.NANOSECONDS);
+            histogram.recordNanos(clamped);
+        }
+    }
+    
+    public record StageLatency(
+            LatencySummary lag,
+            LatencySummary processing
+    ) {
+        double totalP99Ms() {
+            return lag.p99Ms() + processing.p99Ms();
+        }
+    }
+    
+    public record SagaLatencyReport(
+            Map<SagaOutcome, LatencySummary> endToEnd,
+            Map<String, StageLatency> stages
+    ) {}
+}
@@ -0,0 +1,8 @@
+package com.example.shared.saga;
+
+public enum SagaOutcome {
+    /** 配送通知の送信待ち登録まで完了した */
+    COMPLETED,
+    /** 在庫確保に失敗し、キャンセルした在庫の解放まで完了した */
+    CANCELLED
+}
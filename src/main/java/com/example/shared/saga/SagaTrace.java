@@ -0,0 +1,28 @@
+package com.example.shared.saga;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 注文サーガを構成するイベントが引き継ぐトレース情報
+ * 相関IDと起点時刻はサーガ全体で共通で、publishedAtだけをイベントの発行ごとに更新する
+ * イベントは永続化され再起動後に再送されることもあるため、nanoTimeではなく壁時計の時刻を使う
+ */
+public record SagaTrace(
+    UUID correlationId,
+    Instant originatedAt,
+    Instant publishedAt
+) {
+    
+    public static SagaTrace start() {
+        Instant now = Instant.now();
+        return new SagaTrace(UUID.randomUUID(), now, now);
+    }
+    
+    /**
+     * 次のイベントに引き継ぐトレース情報（発行時刻のみ現在時刻に更新）
+     */
+    public SagaTrace next() {
+        return new SagaTrace(correlationId, originatedAt, Instant.now());
+    }
+}
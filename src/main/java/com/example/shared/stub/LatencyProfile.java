@@ -0,0 +1,45 @@
+package com.example.shared.stub;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * スタブの外部サービス1つ分の応答時間の分布とエラー率
+ *
+ * @param distribution 応答時間の分布
+ * @param delayMs FIXEDでは応答時間、LOGNORMALでは中央値、BIMODALでは速い方の応答時間
+ * @param sigma LOGNORMALの形状パラメータ（大きいほど裾が長い。0.5でp99は中央値の約3.2倍）
+ * @param slowDelayMs BIMODALの遅い方の応答時間
+ * @param slowRatio BIMODALで遅い方になる確率（0.0〜1.0）
+ * @param errorRate 呼び出しがエラー（503）になる確率（0.0〜1.0）
+ */
+public record LatencyProfile(
+    @DefaultValue("FIXED") Distribution distribution,
+    @DefaultValue("0") long delayMs,
+    @DefaultValue("0.5") double sigma,
+    @DefaultValue("0") long slowDelayMs,
+    @DefaultValue("0.0") double slowRatio,
+    @DefaultValue("0.0") double errorRate
+) {
+    
+    public enum Distribution {
+        FIXED, LOGNORMAL, BIMODAL
+    }
+    
+    public static LatencyProfile fixed(long delayMs) {
+        return new LatencyProfile(Distribution.FIXED, delayMs, 0.0, 0, 0.0, 0.0);
+    }
+    
+    public long sampleDelayMs(RandomGenerator random) {
+        return switch (distribution) {
+            case FIXED -> delayMs;
+            case LOGNORMAL -> Math.round(delayMs * Math.exp(sigma * random.nextGaussian()));
+            case BIMODAL -> random.nextDouble() < slowRatio ? slowDelayMs : delayMs;
+        };
+    }
+    
+    public boolean sampleError(RandomGenerator random) {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+}
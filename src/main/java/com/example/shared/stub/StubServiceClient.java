@@ -0,0 +1,147 @@
+package com.example.shared.stub;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * スタブの外部サービスを呼び出す
+ * 各モジュールの外部API呼び出し（在庫照会・配送API・通知送信）やベンチマークのI/O待機は、
+ * 固定のThread.sleepではなくこのクライアントを通して行う。
+ * HTTPでは実際のソケットI/Oで待つため、Virtual Threadはキャリアスレッドを解放して応答を待つ。
+ * 呼び出しの所要時間はapp.stub-service.calls（service, outcome）で確認できる。
+ */
+@Component
+public class StubServiceClient {
+    
+    private final StubServiceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final String baseUri;
+    
+    public StubServiceClient(StubServiceProperties properties, StubServiceServer server, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (properties.transport() == StubServiceProperties.Transport.HTTP) {
+            this.httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stub-client-vt-", 0).factory()))
+                    .build();
+            this.baseUri = "http://127.0.0.1:" + server.port() + StubServiceServer.CONTEXT_PATH;
+        } else {
+            this.httpClient = null;
+            this.baseUri = null;
+        }
+    }
+    
+    /**
+     * サービスに設定された分布（app.stub-service.services.{service}）の応答時間で呼び出す
+     *
+     * @throws StubServiceException エラー応答・タイムアウト・接続失敗の場合
+     */
+    public void call(String service) {
+        LatencyProfile profile = properties.profile(service);
+        invoke(service, profile, "");
+    }
+    
+    /**
+     * 分布の代わりに固定の応答時間で呼び出す（ベンチマーク用）
+     */
+    public void call(String service, long delayMs) {
+        invoke(service, LatencyProfile.fixed(delayMs), "?delayMs=" + delayMs);
+    }
+    
+    /**
+     * 固定の応答時間で非同期に呼び出す（呼び出し元のスレッドを待機させない方式のベンチマーク用）
+     * HTTPではHttpClient.sendAsync、SLEEPでは遅延実行で応答を待つ
+     *
+     * @return 応答で完了するCompletableFuture（エラー時はStubServiceExceptionで例外完了する）
+     */
+    public CompletableFuture<Void> callAsync(String service, long delayMs) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<Void> response;
+        if (httpClient != null) {
+            response = httpClient.sendAsync(request(service, "?delayMs=" + delayMs), HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(r -> {
+                        if (r.statusCode() != 200) {
+                            throw new StubServiceException("Stub service " + service + " responded with " + r.statusCode());
+                        }
+                    });
+        } else {
+            response = CompletableFuture.runAsync(() -> {},
+                    CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+        }
+        return response.whenComplete((ignored, error) -> record(service, error == null ? "success" : "error", startNanos));
+    }
+    
+    private void invoke(String service, LatencyProfile profile, String query) {
+        long startNanos = System.nanoTime();
+        String outcome = "success";
+        try {
+            if (httpClient != null) {
+                send(service, query);
+            } else {
+                sleep(service, profile);
+            }
+        } catch (StubServiceException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            record(service, outcome, startNanos);
+        }
+    }
+    
+    private void record(String service, String outcome, long startNanos) {
+        Timer.builder("app.stub-service.calls")
+                .tag("service", service)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+    
+    private HttpRequest request(String service, String query) {
+        return HttpRequest.newBuilder(URI.create(baseUri + service + query))
+                .timeout(Duration.ofMillis(properties.requestTimeoutMs()))
+                .GET()
+                .build();
+    }
+    
+    private void send(String service, String query) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request(service, query), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new StubServiceException("Stub service " + service + " responded with " + response.statusCode());
+            }
+        } catch (IOException e) {
+            throw new StubServiceException("Failed to call stub service " + service, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StubServiceException("Interrupted while calling stub service " + service, e);
+        }
+    }
+    
+    private void sleep(String service, LatencyProfile profile) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(profile.sampleDelayMs(random));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StubServiceException("Interrupted while calling stub service " + service, e);
+        }
+        if (profile.sampleError(random)) {
+            throw new StubServiceException("Stub service " + service + " responded with 503");
+        }
+    }
+}
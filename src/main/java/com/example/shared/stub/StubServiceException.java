@@ -0,0 +1,15 @@
+package com.example.shared.stub;
+
+/**
+ * スタブの外部サービスの呼び出しが失敗した（エラー応答・タイムアウト・接続失敗）
+ */
+public class StubServiceException extends RuntimeException {
+    
+    public StubServiceException(String message) {
+        super(message);
+    }
+    
+    public StubServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.shared.stub;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * @param transport HTTP: 組み込みのスタブサーバーをHTTPで呼び出す / SLEEP: 呼び出し元のスレッドで同じ分布の時間だけ待機する
+ * @param port スタブサーバーの待ち受けポート（0の場合は空いているポートを使う）
+ * @param backlog スタブサーバーの接続待ちキューの長さ（一斉に接続する負荷テストで接続が拒否されないようにする）
+ * @param requestTimeoutMs 1回の呼び出しの応答を待つ上限
+ * @param services サービス名（inventory・shipping・notificationなど）ごとの応答時間の分布
+ */
+@ConfigurationProperties(prefix = "app.stub-service")
+public record StubServiceProperties(
+    @DefaultValue("HTTP") Transport transport,
+    @DefaultValue("0") int port,
+    @DefaultValue("4096") int backlog,
+    @DefaultValue("30000") long requestTimeoutMs,
+    @DefaultValue Map<String, LatencyProfile> services
+) {
+    
+    public enum Transport {
+        HTTP, SLEEP
+    }
+    
+    LatencyProfile profile(String service) {
+        LatencyProfile profile = services.get(service);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown stub service: " + service);
+        }
+        return profile;
+    }
+}
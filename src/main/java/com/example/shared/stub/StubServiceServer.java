@@ -0,0 +1,86 @@
+package com.example.shared.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 外部サービスの代わりに応答するローカルのHTTPサーバー（JDK組み込みのHttpServer）
+ * GET /stub/{service} に対し、サービスごとの分布から選んだ時間だけ待ってから200（エラー時は503）を返す。
+ * ?delayMs=N を付けた場合は分布の代わりにN msの固定の待ち時間とする（ベンチマーク用）。
+ * 待機はリクエストごとのVirtual Thread上で行うため、同時接続数に応じてスレッドを用意する必要はない。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StubServiceServer {
+    
+    static final String CONTEXT_PATH = "/stub/";
+    
+    private final StubServiceProperties properties;
+    private HttpServer server;
+    private ExecutorService executor;
+    
+    @PostConstruct
+    void start() throws IOException {
+        if (properties.transport() != StubServiceProperties.Transport.HTTP) {
+            return;
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stub-service-vt-", 0).factory());
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), properties.port()),
+                properties.backlog());
+        server.setExecutor(executor);
+        server.createContext(CONTEXT_PATH, this::handle);
+        server.start();
+        log.info("スタブの外部サービスを起動しました: ポート={}, サービス={}", port(), properties.services().keySet());
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+    
+    public int port() {
+        return server.getAddress().getPort();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String service = exchange.getRequestURI().getPath().substring(CONTEXT_PATH.length());
+            String query = exchange.getRequestURI().getQuery();
+            LatencyProfile profile;
+            if (query != null && query.startsWith("delayMs=")) {
+                profile = LatencyProfile.fixed(Long.parseLong(query.substring("delayMs=".length())));
+            } else if (properties.services().containsKey(service)) {
+                profile = properties.profile(service);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delayMs = profile.sampleDelayMs(random);
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+            exchange.sendResponseHeaders(profile.sampleError(random) ? 503 : 200, -1);
+        } catch (InterruptedException e) {
+            // シャットダウン中は応答せずに接続を閉じる
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,6 +6,7 @@ public record ShipmentCreatedEvent(
     UUID shipmentId,
     UUID orderId,
     String customerId,
-    String trackingNumber
+    String trackingNumber,
+    com.example.shared.saga.SagaTrace trace
 ) {
 }
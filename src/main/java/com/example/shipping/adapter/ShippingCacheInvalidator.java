@@ -0,0 +1,23 @@
+package com.example.shipping.adapter;
+
+import com.example.config.CacheConfig;
+import com.example.shared.cache.CacheEvictor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 配送の読み取りキャッシュを、配送の処理が終わったイベントの発行元のコミット後に無効化する
+ * 作成直後（PENDING）に読み込まれた配送がキャッシュに残らないようにする
+ */
+@Component
+@RequiredArgsConstructor
+public class ShippingCacheInvalidator {
+    
+    private final CacheEvictor cacheEvictor;
+    
+    @EventListener
+    public void onShipmentCreated(ShipmentCreatedEvent event) {
+        cacheEvictor.evictAfterCommit(CacheConfig.SHIPMENT_CACHE, event.orderId());
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.shipping.adapter;
 
+import com.example.config.VirtualThreadConfig;
+import com.example.shared.saga.SagaLatencyTracker;
+import com.example.shared.stub.StubServiceClient;
 import com.example.shipping.application.ShippingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,39 +16,36 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class ShippingEventListener {
     
+    private static final String SHIPPING_API = "shipping";
+    
     private final ShippingService shippingService;
     private final ApplicationEventPublisher eventPublisher;
+    private final SagaLatencyTracker sagaTracker;
+    private final StubServiceClient stubServiceClient;
     
     @ApplicationModuleListener
-    @Async
+    @Async(VirtualThreadConfig.SHIPPING_TASK_EXECUTOR)
     public void onOrderConfirmed(com.example.order.adapter.OrderConfirmedEvent event) {
-        log.info("OrderConfirmedEventを受信しました: 注文ID={} (スレッド: {})", 
-                event.orderId(), Thread.currentThread());
+        long startNanos = sagaTracker.begin("shipping.ship", event.trace());
+        log.info("OrderConfirmedEventを受信しました: 注文ID={}, 相関ID={} (スレッド: {})", 
+                event.orderId(), event.trace().correlationId(), Thread.currentThread());
         
-        // Simulate I/O operation (e.g., calling shipping API)
-        simulateShippingApiCall();
+        // 配送APIの呼び出し（応答時間とエラー率はapp.stub-service.services.shippingで設定する）
+        stubServiceClient.call(SHIPPING_API);
         
-        var shipmentDto = shippingService.createShipment(event.orderId(), event.customerId());
-        var processedShipment = shippingService.processShipping(shipmentDto.id());
+        var processedShipment = shippingService.shipOrder(event.orderId(), event.customerId());
         
         ShipmentCreatedEvent shipmentEvent = new ShipmentCreatedEvent(
                 processedShipment.id(),
                 processedShipment.orderId(),
                 processedShipment.customerId(),
-                processedShipment.trackingNumber()
+                processedShipment.trackingNumber(),
+                event.trace().next()
         );
         
         eventPublisher.publishEvent(shipmentEvent);
         log.info("配送情報を作成しました: 注文ID={}, 追跡番号={}", 
                 event.orderId(), processedShipment.trackingNumber());
-    }
-    
-    private void simulateShippingApiCall() {
-        try {
-            // Simulate external API call delay
-            Thread.sleep(150);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        sagaTracker.end("shipping.ship", startNanos);
     }
 }
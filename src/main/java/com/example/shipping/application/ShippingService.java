@@ -1,12 +1,15 @@
 package com.example.shipping.application;
 
+import com.example.config.CacheConfig;
 import com.example.shipping.domain.Shipment;
+import com.example.shared.retry.OptimisticRetryExecutor;
 import com.example.shipping.infrastructure.ShipmentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -15,24 +18,32 @@ import java.util.UUID;
 public class ShippingService {
     
     private final ShipmentRepository shipmentRepository;
+    private final OptimisticRetryExecutor retryExecutor;
     
-    @Transactional
-    public ShipmentDto createShipment(UUID orderId, String customerId) {
-        Shipment shipment = Shipment.builder()
-                .orderId(orderId)
-                .customerId(customerId)
-                .status(Shipment.ShipmentStatus.PENDING)
-                .build();
-        
-        shipment = shipmentRepository.save(shipment);
-        log.info("配送情報を作成しました: 配送ID={}", shipment.getId());
-        return ShipmentDto.from(shipment);
+    /**
+     * 注文の配送を作成して出荷する（作成と出荷は1つのトランザクションで行い、楽観ロックの競合時は再試行する）
+     * 注文IDごとに冪等で、イベントの再送などで同じ注文に対して再度呼び出された場合は既存の配送を返す
+     */
+    public ShipmentDto shipOrder(UUID orderId, String customerId) {
+        return retryExecutor.execute("shipment.ship", () -> doShipOrder(orderId, customerId));
     }
     
-    @Transactional
-    public ShipmentDto processShipping(UUID shipmentId) {
-        Shipment shipment = shipmentRepository.findById(shipmentId)
-                .orElseThrow(() -> new RuntimeException("Shipment not found: " + shipmentId));
+    private ShipmentDto doShipOrder(UUID orderId, String customerId) {
+        Shipment shipment = shipmentRepository.findByOrderId(orderId)
+                .orElseGet(() -> {
+                    Shipment created = shipmentRepository.save(Shipment.builder()
+                            .orderId(orderId)
+                            .customerId(customerId)
+                            .status(Shipment.ShipmentStatus.PENDING)
+                            .build());
+                    log.info("配送情報を作成しました: 配送ID={}", created.getId());
+                    return created;
+                });
+        
+        if (shipment.getStatus() != Shipment.ShipmentStatus.PENDING) {
+            log.info("配送は処理済みです: 注文ID={}, 配送ID={}, ステータス={}", orderId, shipment.getId(), shipment.getStatus());
+            return ShipmentDto.from(shipment);
+        }
         
         shipment.ship();
         shipment = shipmentRepository.save(shipment);
@@ -41,9 +52,23 @@ public class ShippingService {
         return ShipmentDto.from(shipment);
     }
     
+    /**
+     * 配送の処理が終わる（ShipmentCreatedEvent）とShippingCacheInvalidatorが無効化する
+     */
+    @Cacheable(CacheConfig.SHIPMENT_CACHE)
     public ShipmentDto getShipment(UUID orderId) {
         Shipment shipment = shipmentRepository.findByOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Shipment not found for order: " + orderId));
         return ShipmentDto.from(shipment);
     }
+    
+    /**
+     * 配送がまだ作成されていない（または注文がキャンセルされた）場合は空を返す
+     * キャッシュはgetShipmentと共有し、見つからなかった結果はキャッシュしない
+     */
+    @Cacheable(cacheNames = CacheConfig.SHIPMENT_CACHE, unless = "#result == null")
+    public Optional<ShipmentDto> findShipment(UUID orderId) {
+        return shipmentRepository.findByOrderId(orderId)
+                .map(ShipmentDto::from);
+    }
 }
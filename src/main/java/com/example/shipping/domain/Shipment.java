@@ -21,7 +21,8 @@ public class Shipment {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
-    @Column(nullable = false)
+    // 1注文に1配送（同じ注文の配送を同時に作成した場合は一方のコミットが失敗する）
+    @Column(nullable = false, unique = true)
     private UUID orderId;
     
     @Column(nullable = false)
@@ -36,6 +37,9 @@ public class Shipment {
     
     private LocalDateTime deliveredAt;
     
+    @Version
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         if (status == null) {
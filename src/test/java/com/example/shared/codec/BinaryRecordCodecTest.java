@@ -0,0 +1,171 @@
+package com.example.shared.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryRecordCodecTest {
+    
+    private final BinaryRecordCodec codec = BinaryRecordCodec.standard();
+    
+    @Test
+    @DisplayName("対応するすべての型の構成要素を書き込んだとおりに読み込める")
+    void roundTripsSupportedTypes() {
+        AllTypes value = new AllTypes("注文-001", -42, Long.MIN_VALUE, true, 12.5, 7, UUID.randomUUID(),
+                Instant.ofEpochSecond(-1, 999_999_999), new BigDecimal("-1234.5600"), Status.SHIPPED);
+        
+        assertThat(codec.decode(codec.encode(value), AllTypes.class)).isEqualTo(value);
+    }
+    
+    @Test
+    @DisplayName("ByteBufferからの読み込みは、読み込んだrecordの分だけ位置を進める")
+    void decodesFromBufferPosition() {
+        byte[] first = codec.encode(new ItemV1("a", 1));
+        byte[] second = codec.encode(new ItemV1("b", 2));
+        ByteBuffer buffer = ByteBuffer.allocate(first.length + second.length).put(first).put(second).flip();
+        
+        assertThat(codec.decode(buffer, ItemV1.class)).isEqualTo(new ItemV1("a", 1));
+        assertThat(buffer.position()).isEqualTo(first.length);
+        assertThat(codec.decode(buffer, ItemV1.class)).isEqualTo(new ItemV1("b", 2));
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+    
+    @Test
+    @DisplayName("末尾に追加した構成要素は、追加前のバイナリからはnull・0として読み込む")
+    void readsAppendedTrailingComponentsAsDefaults() {
+        byte[] written = codec.encode(new ItemV1("item", 3));
+        
+        assertThat(codec.decode(written, ItemV2.class)).isEqualTo(new ItemV2("item", 3, null, 0L));
+    }
+    
+    @Test
+    @DisplayName("構成要素を削除した定義で、削除前のバイナリを読み込むとIncompatibleRecordException")
+    void rejectsRemovedComponents() {
+        byte[] written = codec.encode(new ItemV2("item", 3, "note", 10L));
+        
+        assertThatThrownBy(() -> codec.decode(written, ItemV1.class))
+                .isInstanceOf(IncompatibleRecordException.class);
+    }
+    
+    @Test
+    @DisplayName("構成要素の名前を変えた定義で読み込むとIncompatibleRecordException")
+    void rejectsRenamedComponent() {
+        byte[] written = codec.encode(new ItemV1("item", 3));
+        
+        assertThatThrownBy(() -> codec.decode(written, RenamedItem.class))
+                .isInstanceOf(IncompatibleRecordException.class);
+    }
+    
+    @Test
+    @DisplayName("構成要素の型を変えた定義で読み込むとIncompatibleRecordException")
+    void rejectsRetypedComponent() {
+        byte[] written = codec.encode(new ItemV1("item", 3));
+        
+        assertThatThrownBy(() -> codec.decode(written, RetypedItem.class))
+                .isInstanceOf(IncompatibleRecordException.class);
+    }
+    
+    @Test
+    @DisplayName("途中で切れたバイナリはIncompatibleRecordException")
+    void rejectsTruncatedBytes() {
+        byte[] written = codec.encode(new ItemV1("item", 3));
+        byte[] truncated = Arrays.copyOf(written, written.length - 2);
+        
+        assertThatThrownBy(() -> codec.decode(truncated, ItemV1.class))
+                .isInstanceOf(IncompatibleRecordException.class);
+    }
+    
+    @Test
+    @DisplayName("参照型のnullはビットマスクで表し、値を書き込まない")
+    void encodesNullsInBitmask() {
+        AllTypes allNull = new AllTypes(null, 0, 0L, false, 0.0, null, null, null, null, null);
+        AllTypes mixed = new AllTypes("a", 1, 2L, true, 3.0, null, UUID.randomUUID(), null, BigDecimal.ONE, null);
+        
+        assertThat(codec.decode(codec.encode(allNull), AllTypes.class)).isEqualTo(allNull);
+        assertThat(codec.decode(codec.encode(mixed), AllTypes.class)).isEqualTo(mixed);
+        // 構成要素の数(1) + フィンガープリント(4) + ビットマスク(可変長で2) + プリミティブ(int, long, boolean: 各1, double: 8)
+        assertThat(codec.encode(allNull)).hasSize(1 + 4 + 2 + 3 + 8);
+    }
+    
+    @Test
+    @DisplayName("表にある文字列は位置だけを書き込み、読み込み時は表のインスタンスを返す")
+    void internsStringsFromTable() {
+        String interned = "ORDER_CREATED";
+        BinaryRecordCodec internedCodec = BinaryRecordCodec.withInternedStrings(List.of("ORDER_CONFIRMED", interned));
+        // 表と同じ内容の別インスタンスを書き込む
+        ItemV1 value = new ItemV1(new String(interned), 1);
+        
+        byte[] written = internedCodec.encode(value);
+        ItemV1 decoded = internedCodec.decode(written, ItemV1.class);
+        
+        assertThat(decoded.name()).isSameAs(interned);
+        assertThat(written.length).isLessThan(codec.encode(value).length);
+        assertThat(internedCodec.decode(internedCodec.encode(new ItemV1("other", 2)), ItemV1.class))
+                .isEqualTo(new ItemV1("other", 2));
+    }
+    
+    @Test
+    @DisplayName("enumの名前も文字列の表から書き込む")
+    void internsEnumNames() {
+        BinaryRecordCodec internedCodec = BinaryRecordCodec.withInternedStrings(List.of("SHIPPED"));
+        AllTypes value = new AllTypes(null, 0, 0L, false, 0.0, null, null, null, null, Status.SHIPPED);
+        
+        assertThat(internedCodec.decode(internedCodec.encode(value), AllTypes.class)).isEqualTo(value);
+        assertThat(internedCodec.encode(value).length).isLessThan(codec.encode(value).length);
+    }
+    
+    @Test
+    @DisplayName("入れ子のrecordとそのnullを読み込める")
+    void roundTripsNestedRecords() {
+        Order withGift = new Order(UUID.randomUUID(), new ItemV1("item", 2), new ItemV1("gift", 1));
+        Order withoutGift = new Order(UUID.randomUUID(), new ItemV1("item", 2), null);
+        
+        assertThat(codec.decode(codec.encode(withGift), Order.class)).isEqualTo(withGift);
+        assertThat(codec.decode(codec.encode(withoutGift), Order.class)).isEqualTo(withoutGift);
+    }
+    
+    @Test
+    @DisplayName("入れ子のrecordの定義が変わった場合もIncompatibleRecordException")
+    void rejectsIncompatibleNestedRecord() {
+        byte[] written = codec.encode(new Order(UUID.randomUUID(), new ItemV1("item", 2), null));
+        
+        assertThatThrownBy(() -> codec.decode(written, RenamedNestedOrder.class))
+                .isInstanceOf(IncompatibleRecordException.class);
+    }
+    
+    @Test
+    @DisplayName("対応していない型の構成要素を持つrecordはIllegalArgumentException")
+    void rejectsUnsupportedComponentType() {
+        assertThatThrownBy(() -> codec.encode(new Unsupported(List.of("a"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .isNotInstanceOf(IncompatibleRecordException.class);
+    }
+    
+    enum Status { CREATED, SHIPPED }
+    
+    record AllTypes(String text, int number, long big, boolean flag, double ratio, Integer boxed, UUID id,
+                    Instant at, BigDecimal amount, Status status) {}
+    
+    record ItemV1(String name, int count) {}
+    
+    record ItemV2(String name, int count, String note, long total) {}
+    
+    record RenamedItem(String title, int count) {}
+    
+    record RetypedItem(String name, long count) {}
+    
+    record Order(UUID id, ItemV1 item, ItemV1 gift) {}
+    
+    record RenamedNestedOrder(UUID id, RenamedItem item, RenamedItem gift) {}
+    
+    record Unsupported(List<String> values) {}
+}
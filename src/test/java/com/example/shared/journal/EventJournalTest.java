@@ -0,0 +1,118 @@
+package com.example.shared.journal;
+
+import com.example.shared.codec.IncompatibleRecordException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventJournalTest {
+    
+    // 数件ごとに次のセグメントへ移る大きさ
+    private static final int SEGMENT_SIZE = 128;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    @DisplayName("セグメントをまたいだイベントを、nextOffsetを辿ってページ単位で読み込める")
+    void readsPagesAcrossSegmentRoll() throws Exception {
+        EventJournal journal = open();
+        try {
+            List<Record> events = new ArrayList<>();
+            List<Long> offsets = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Record event = i % 3 == 0 ? new ItemRemoved(UUID.randomUUID()) : new ItemAdded("item-" + i, i);
+                events.add(event);
+                offsets.add(journal.append(event));
+            }
+            assertThat(journal.endOffset()).isGreaterThan(SEGMENT_SIZE * 2L);
+            
+            List<JournalEntry> entries = readAll(journal, 0, 3);
+            assertThat(entries).extracting(JournalEntry::event).containsExactlyElementsOf(events);
+            assertThat(entries).extracting(JournalEntry::offset).containsExactlyElementsOf(offsets);
+        } finally {
+            journal.close();
+        }
+    }
+    
+    @Test
+    @DisplayName("再オープン後もtypesファイルから型を復元して読み込み、末尾から追記を続ける")
+    void reopensWithRecordedTypes() throws Exception {
+        ItemAdded added = new ItemAdded("item-1", 1);
+        ItemRemoved removed = new ItemRemoved(UUID.randomUUID());
+        EventJournal journal = open();
+        long end;
+        try {
+            journal.append(added);
+            journal.append(removed);
+            end = journal.endOffset();
+        } finally {
+            journal.close();
+        }
+        
+        EventJournal reopened = open();
+        try {
+            assertThat(reopened.endOffset()).isEqualTo(end);
+            ItemAdded next = new ItemAdded("item-2", 2);
+            assertThat(reopened.append(next)).isEqualTo(end);
+            
+            assertThat(readAll(reopened, 0, 100)).extracting(JournalEntry::event)
+                    .containsExactly(added, removed, next);
+        } finally {
+            reopened.close();
+        }
+    }
+    
+    @Test
+    @DisplayName("typesファイルにない型のIDはIncompatibleRecordException")
+    void rejectsUnknownTypeId() throws Exception {
+        EventJournal journal = open();
+        try {
+            journal.append(new ItemAdded("item-1", 1));
+        } finally {
+            journal.close();
+        }
+        Files.delete(directory.resolve("types"));
+        
+        EventJournal reopened = open();
+        try {
+            assertThatThrownBy(() -> reopened.read(0, 1))
+                    .isInstanceOf(IncompatibleRecordException.class);
+        } finally {
+            reopened.close();
+        }
+    }
+    
+    private EventJournal open() throws Exception {
+        EventJournal journal = new EventJournal(
+                new EventJournalProperties(true, directory, SEGMENT_SIZE, 8, 0, "com.example"),
+                new SimpleMeterRegistry());
+        journal.open();
+        return journal;
+    }
+    
+    private static List<JournalEntry> readAll(EventJournal journal, long fromOffset, int limit) {
+        List<JournalEntry> entries = new ArrayList<>();
+        long offset = fromOffset;
+        while (offset < journal.endOffset()) {
+            JournalPage page = journal.read(offset, limit);
+            entries.addAll(page.entries());
+            offset = page.nextOffset();
+        }
+        return entries;
+    }
+    
+    record ItemAdded(String name, int quantity) {}
+    
+    record ItemRemoved(UUID id) {}
+}
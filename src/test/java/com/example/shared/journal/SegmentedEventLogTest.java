@@ -0,0 +1,186 @@
+package com.example.shared.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentedEventLogTest {
+    
+    // ヘッダー8バイト＋本体20バイトのレコードが2件収まり、3件目で次のセグメントへ移る大きさ
+    private static final int SEGMENT_SIZE = 64;
+    private static final int RECORD_BYTES = 28;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    @DisplayName("セグメントをまたいで追記したレコードを順に読み込める")
+    void readsAcrossSegmentRoll() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            List<Long> offsets = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                offsets.add(log.append(payload(i)));
+            }
+            
+            assertThat(offsets).containsExactly(0L, 28L, 64L, 92L, 128L);
+            assertThat(log.endOffset()).isEqualTo(128L + RECORD_BYTES);
+            
+            List<Entry> records = new ArrayList<>();
+            long next = log.read(0, 100, collect(records));
+            assertThat(next).isEqualTo(log.endOffset());
+            assertThat(records).extracting(Entry::offset).containsExactlyElementsOf(offsets);
+            assertThat(records).extracting(Entry::text)
+                    .containsExactly(text(0), text(1), text(2), text(3), text(4));
+        }
+    }
+    
+    @Test
+    @DisplayName("件数で区切った読み込みは、返したオフセットから次のセグメントへ続けられる")
+    void continuesFromReturnedOffsetAcrossRoll() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            for (int i = 0; i < 4; i++) {
+                log.append(payload(i));
+            }
+            
+            List<Entry> first = new ArrayList<>();
+            long next = log.read(0, 2, collect(first));
+            // 1つ目のセグメントの終端ではなく、終端を読み飛ばした次のレコードの手前で止まる
+            assertThat(next).isEqualTo(2L * RECORD_BYTES);
+            
+            List<Entry> rest = new ArrayList<>();
+            next = log.read(next, 100, collect(rest));
+            assertThat(rest).extracting(Entry::offset).containsExactly(64L, 92L);
+            assertThat(next).isEqualTo(log.endOffset());
+        }
+    }
+    
+    @Test
+    @DisplayName("CRCが一致しない末尾のレコードは再オープン時に捨て、その位置から追記を再開する")
+    void recoversAfterTornRecord() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            log.append(payload(0));
+            log.append(payload(1));
+            log.append(payload(2));
+        }
+        // 2つ目のセグメントの2件目として、長さだけ書き込まれ本体が揃っていないレコードを再現する
+        try (FileChannel channel = FileChannel.open(segmentPath(64), StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(20).putInt(0x12345678).putInt(0xCAFEBABE).flip();
+            channel.write(torn, RECORD_BYTES);
+        }
+        
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            assertThat(log.endOffset()).isEqualTo(64L + RECORD_BYTES);
+            
+            long offset = log.append(payload(3));
+            assertThat(offset).isEqualTo(64L + RECORD_BYTES);
+            
+            List<Entry> records = new ArrayList<>();
+            log.read(0, 100, collect(records));
+            assertThat(records).extracting(Entry::text).containsExactly(text(0), text(1), text(2), text(3));
+        }
+    }
+    
+    @Test
+    @DisplayName("長さがセグメントを超える末尾のレコードは再オープン時に捨てる")
+    void recoversAfterTruncatedLength() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            log.append(payload(0));
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(SEGMENT_SIZE).flip(), RECORD_BYTES);
+        }
+        
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            assertThat(log.endOffset()).isEqualTo(RECORD_BYTES);
+            
+            List<Entry> records = new ArrayList<>();
+            long next = log.read(0, 100, collect(records));
+            assertThat(records).extracting(Entry::text).containsExactly(text(0));
+            assertThat(next).isEqualTo(RECORD_BYTES);
+        }
+    }
+    
+    @Test
+    @DisplayName("保持数を超えたセグメントは削除し、削除済みのオフセットからは残っている最古のレコードを読む")
+    void deletesOldestSegmentsBeyondRetention() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 2)) {
+            for (int i = 0; i < 6; i++) {
+                log.append(payload(i));
+            }
+            
+            assertThat(log.startOffset()).isEqualTo(64L);
+            assertThat(segmentFiles()).containsExactly(segmentPath(64), segmentPath(128));
+            
+            List<Entry> records = new ArrayList<>();
+            log.read(0, 100, collect(records));
+            assertThat(records).extracting(Entry::text).containsExactly(text(2), text(3), text(4), text(5));
+        }
+    }
+    
+    @Test
+    @DisplayName("レコードの途中を指すオフセットはIllegalArgumentException")
+    void rejectsOffsetInsideRecord() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            log.append(payload(0));
+            log.append(payload(1));
+            
+            assertThatThrownBy(() -> log.read(2, 1, (offset, payload) -> { }))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+    
+    @Test
+    @DisplayName("セグメントより大きいレコードは追記しない")
+    void rejectsRecordLargerThanSegment() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, SEGMENT_SIZE, 8)) {
+            assertThatThrownBy(() -> log.append(new byte[SEGMENT_SIZE]))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(log.endOffset()).isZero();
+        }
+    }
+    
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d.seg", base));
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+    
+    private static byte[] payload(int index) {
+        return text(index).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 本体がちょうど20バイトになる文字列
+     */
+    private static String text(int index) {
+        return String.format("record-%013d", index);
+    }
+    
+    private static SegmentedEventLog.RecordVisitor collect(List<Entry> records) {
+        return (offset, payload) -> {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            records.add(new Entry(offset, new String(bytes, StandardCharsets.UTF_8)));
+        };
+    }
+    
+    private record Entry(long offset, String text) {}
+}